@@ -46,7 +46,14 @@ public class CorsConfig {
                 "Access-Control-Allow-Origin",
                 "Access-Control-Allow-Credentials",
                 "Authorization",
-                "Content-Type"));
+                "Content-Type",
+                "Retry-After",
+                "Location",
+                "Content-Disposition",
+                "Content-Range",
+                "Accept-Ranges",
+                "X-Export-Watermark",
+                "ETag"));
 
         // How long the browser can cache the preflight response
         configuration.setMaxAge(3600L);
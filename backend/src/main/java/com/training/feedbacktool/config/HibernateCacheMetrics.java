@@ -0,0 +1,43 @@
+package com.training.feedbacktool.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes Hibernate's second-level and query cache statistics as Micrometer
+ * counters (requires {@code hibernate.generate_statistics=true})
+ */
+@Component
+public class HibernateCacheMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public HibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "hibernate.second.level.cache.requests", "hit", Statistics::getSecondLevelCacheHitCount);
+        counter(registry, "hibernate.second.level.cache.requests", "miss", Statistics::getSecondLevelCacheMissCount);
+        counter(registry, "hibernate.second.level.cache.puts", null, Statistics::getSecondLevelCachePutCount);
+        counter(registry, "hibernate.query.cache.requests", "hit", Statistics::getQueryCacheHitCount);
+        counter(registry, "hibernate.query.cache.requests", "miss", Statistics::getQueryCacheMissCount);
+        counter(registry, "hibernate.query.cache.puts", null, Statistics::getQueryCachePutCount);
+    }
+
+    private void counter(MeterRegistry registry, String name, String result, ToDoubleFunction<Statistics> count) {
+        FunctionCounter.Builder<Statistics> builder = FunctionCounter.builder(name, statistics, count);
+        if (result != null) {
+            builder.tag("result", result);
+        }
+        builder.register(registry);
+    }
+}
@@ -1,6 +1,7 @@
 package com.training.feedbacktool.config;
 
 import com.training.feedbacktool.util.JwtUtil;
+import com.training.feedbacktool.util.VerifiedToken;
 import com.training.feedbacktool.service.TokenBlacklistService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -37,14 +38,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 requestPath.startsWith("/api/public/") ||
                 requestPath.matches("/surveys/\\d+/public");
 
-        String email = null;
-        String jwt = null;
+        VerifiedToken token = null;
 
-        // Extract JWT from Authorization header if present
+        // Extract and verify the JWT from the Authorization header if present
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
             try {
-                email = jwtUtil.extractEmail(jwt);
+                token = jwtUtil.verify(jwt);
             } catch (Exception e) {
                 // Invalid token - for public endpoints, continue without auth; for protected
                 // endpoints, let security config handle
@@ -56,17 +56,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         // If we have a valid email and no existing authentication, set up the security
         // context
+        String email = token != null ? token.email() : null;
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
                 // Check if token is blacklisted (for proper logout functionality)
-                if (tokenBlacklistService.isTokenBlacklisted(jwt)) {
+                if (tokenBlacklistService.isTokenBlacklisted(token.tokenId())) {
                     if (!isPublicEndpoint) {
                         logger.warn("Token is blacklisted");
                     }
-                } else if (!jwtUtil.isTokenExpired(jwt)) {
+                } else if (!token.isExpired()) {
                     // Extract role from token
-                    String role = jwtUtil.extractRole(jwt);
-                    // Note: userId is available via jwtUtil.extractUserId(jwt) if needed
+                    String role = token.role();
+                    // Note: userId is available via token.userId() if needed
 
                     // Create authorities (Spring Security expects "ROLE_" prefix)
                     List<SimpleGrantedAuthority> authorities = List.of(
@@ -0,0 +1,103 @@
+package com.training.feedbacktool.config;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-process Hibernate second-level cache. Each entity, collection and query
+ * region is a bounded LRU map in this JVM; Hibernate's own access strategies
+ * (read-write soft locks, update timestamps) run on top, so regions only store
+ * entries. Suitable for a single application instance.
+ */
+public class LocalRegionFactory extends RegionFactoryTemplate {
+
+    /** Maximum entries per entity, collection or query region */
+    public static final String MAX_ENTRIES_PER_REGION = "hibernate.cache.local.max_entries_per_region";
+
+    private int maxEntriesPerRegion = 10_000;
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        Object maxEntries = configValues.get(MAX_ENTRIES_PER_REGION);
+        if (maxEntries != null) {
+            maxEntriesPerRegion = Integer.parseInt(maxEntries.toString().trim());
+        }
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        // Regions are plain maps; nothing to shut down
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+            DomainDataRegionBuildingContext buildingContext) {
+        return new MapStorageAccess(maxEntriesPerRegion);
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+            SessionFactoryImplementor sessionFactory) {
+        return new MapStorageAccess(maxEntriesPerRegion);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+            SessionFactoryImplementor sessionFactory) {
+        // One entry per table; evicting one could serve stale query results
+        return new MapStorageAccess(Integer.MAX_VALUE);
+    }
+
+    private static final class MapStorageAccess implements DomainDataStorageAccess {
+
+        private final Map<Object, Object> entries;
+
+        MapStorageAccess(int maxEntries) {
+            this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        @Override
+        public synchronized Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return entries.get(key);
+        }
+
+        @Override
+        public synchronized void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            entries.put(key, value);
+        }
+
+        @Override
+        public synchronized boolean contains(Object key) {
+            return entries.containsKey(key);
+        }
+
+        @Override
+        public synchronized void evictData() {
+            entries.clear();
+        }
+
+        @Override
+        public synchronized void evictData(Object key) {
+            entries.remove(key);
+        }
+
+        @Override
+        public synchronized void release() {
+            entries.clear();
+        }
+    }
+}
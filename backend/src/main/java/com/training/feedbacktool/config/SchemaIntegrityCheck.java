@@ -0,0 +1,78 @@
+package com.training.feedbacktool.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Refuses to start on a database the SQL migrations under db/migration have
+ * not been applied to. Hibernate's ddl-auto creates missing tables and columns
+ * but cannot seed or backfill them, so without the migrations new rows would
+ * collide with existing ids. Runs after the schema update (it depends on the
+ * EntityManagerFactory) and before the web server starts.
+ */
+@Component
+public class SchemaIntegrityCheck {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaIntegrityCheck.class);
+
+    // Pooled id sequence tables, the table each numbers, the entity's
+    // allocationSize and the migration seeding it
+    private static final List<PooledSequence> SEQUENCES = List.of(
+            new PooledSequence("answers_seq", "answers", 50, "V7__pooled_ids_for_answers_and_responses.sql"),
+            new PooledSequence("responses_seq", "responses", 50, "V7__pooled_ids_for_answers_and_responses.sql"),
+            new PooledSequence("questions_seq", "questions", 50, "V8__pooled_ids_for_questions.sql"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // The EntityManagerFactory is only injected so the check runs after Hibernate's schema update
+    public SchemaIntegrityCheck(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void verify() {
+        List<String> problems = new ArrayList<>();
+        SEQUENCES.forEach(sequence -> checkSequence(sequence, problems));
+        checkAnswerSurveyIds(problems);
+
+        if (!problems.isEmpty()) {
+            problems.forEach(problem -> logger.error("Schema check failed: {}", problem));
+            throw new IllegalStateException("Database schema is missing migrations: " + String.join("; ", problems));
+        }
+        logger.info("Schema check passed");
+    }
+
+    // The pooled optimizer hands out (next_val - increment, next_val], so the
+    // whole next block must lie above every existing id
+    private void checkSequence(PooledSequence sequence, List<String> problems) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + sequence.table(), Long.class);
+        if (maxId == null) {
+            return;
+        }
+        Long nextVal = jdbcTemplate.queryForObject("SELECT MAX(next_val) FROM " + sequence.name(), Long.class);
+        if (nextVal == null || nextVal - sequence.increment() < maxId) {
+            problems.add(sequence.name() + " is at " + nextVal + " but " + sequence.table() + " already has id "
+                    + maxId + ", its next block of " + sequence.increment() + " ids would collide (apply "
+                    + sequence.migration() + ")");
+        }
+    }
+
+    // Answers carry their survey id; rows added before the column existed hold 0
+    private void checkAnswerSurveyIds(List<String> problems) {
+        Long missing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM answers WHERE survey_id IS NULL OR survey_id = 0", Long.class);
+        if (missing != null && missing > 0) {
+            problems.add(missing + " answers have no survey_id (apply V11__survey_id_on_answers.sql)");
+        }
+    }
+
+    private record PooledSequence(String name, String table, int increment, String migration) {
+    }
+}
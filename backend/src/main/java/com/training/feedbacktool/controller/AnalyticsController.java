@@ -2,6 +2,7 @@ package com.training.feedbacktool.controller;
 
 import com.training.feedbacktool.common.ApiResponse;
 import com.training.feedbacktool.service.AnalyticsService;
+import com.training.feedbacktool.service.SurveyStatsService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,9 +18,11 @@ import java.util.List;
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final SurveyStatsService surveyStatsService;
 
-    public AnalyticsController(AnalyticsService analyticsService) {
+    public AnalyticsController(AnalyticsService analyticsService, SurveyStatsService surveyStatsService) {
         this.analyticsService = analyticsService;
+        this.surveyStatsService = surveyStatsService;
     }
 
     /**
@@ -27,12 +30,17 @@ public class AnalyticsController {
      */
     @GetMapping("/response-trends")
     public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getResponseTrends(
-            @RequestParam(defaultValue = "30") int days) {
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(required = false) String timeZone) {
         try {
-            List<Map<String, Object>> trends = analyticsService.getResponseTrends(days);
+            List<Map<String, Object>> trends = analyticsService.getResponseTrends(days, timeZone);
             ApiResponse<List<Map<String, Object>>> response = ApiResponse.success(trends,
                     "Response trends retrieved successfully");
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<List<Map<String, Object>>> response = ApiResponse.error(
+                    "Invalid request: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             ApiResponse<List<Map<String, Object>>> response = ApiResponse.error(
                     "Failed to retrieve response trends: " + e.getMessage(),
@@ -64,12 +72,17 @@ public class AnalyticsController {
      * Get dashboard overview stats
      */
     @GetMapping("/overview")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getDashboardOverview() {
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getDashboardOverview(
+            @RequestParam(required = false) String timeZone) {
         try {
-            Map<String, Object> overview = analyticsService.getDashboardOverview();
+            Map<String, Object> overview = analyticsService.getDashboardOverview(timeZone);
             ApiResponse<Map<String, Object>> response = ApiResponse.success(overview,
                     "Dashboard overview retrieved successfully");
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<Map<String, Object>> response = ApiResponse.error(
+                    "Invalid request: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             ApiResponse<Map<String, Object>> response = ApiResponse.error(
                     "Failed to retrieve dashboard overview: " + e.getMessage(),
@@ -114,4 +127,33 @@ public class AnalyticsController {
             return ResponseEntity.internalServerError().body(response);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Recompute the per-survey daily rollups from raw responses and answers
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<ApiResponse<String>> rebuildRollups() {
+        if (surveyStatsService.isRebuildRunning()) {
+            ApiResponse<String> response = ApiResponse.error("A rollup rebuild is already running",
+                    HttpStatus.CONFLICT);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        surveyStatsService.rebuildAll();
+        ApiResponse<String> response = ApiResponse.success("", "Rollup rebuild started", HttpStatus.ACCEPTED);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    /**
+     * Report whether the rollup is populated, whether a rebuild is running and how many
+     * surveys the last one failed
+     */
+    @GetMapping("/rollups/status")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getRollupStatus() {
+        Map<String, Object> status = Map.of(
+                "rebuildRunning", surveyStatsService.isRebuildRunning(),
+                "rollupReady", surveyStatsService.isRollupReady(),
+                "lastRebuildFailures", surveyStatsService.getLastRebuildFailures());
+        ApiResponse<Map<String, Object>> response = ApiResponse.success(status, "Rollup status retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,24 +1,41 @@
 package com.training.feedbacktool.controller;
 
+import com.training.feedbacktool.common.ApiResponse;
+import com.training.feedbacktool.dto.ExportJobStatus;
+import com.training.feedbacktool.service.ExportJobService;
+import com.training.feedbacktool.service.ExportJobService.ExportArtifact;
+import com.training.feedbacktool.service.BulkExportService;
+import com.training.feedbacktool.service.ExportEncoding;
 import com.training.feedbacktool.service.ExportService;
 import com.training.feedbacktool.service.ExportService.ExportOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/exports")
@@ -27,45 +44,139 @@ public class ExportController {
 
     private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
     private final ExportService exportService;
+    private final ExportJobService exportJobService;
+    private final BulkExportService bulkExportService;
 
-    public ExportController(ExportService exportService) {
+    public ExportController(ExportService exportService, ExportJobService exportJobService,
+            BulkExportService bulkExportService) {
         this.exportService = exportService;
+        this.exportJobService = exportJobService;
+        this.bulkExportService = bulkExportService;
     }
 
     /**
-     * Export survey analysis as CSV
+     * Export survey analysis as CSV, streamed to the client as it is generated
      */
     @GetMapping("/surveys/{surveyId}/analysis/csv")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<byte[]> exportSurveyAnalysisAsCSV(
+    public ResponseEntity<StreamingResponseBody> exportSurveyAnalysisAsCSV(
             @PathVariable Long surveyId,
             @RequestParam(defaultValue = "true") boolean includeQuestionAnalysis,
             @RequestParam(defaultValue = "true") boolean includeRespondentData,
-            @RequestParam(defaultValue = "false") boolean includeRawResponses) {
+            @RequestParam(defaultValue = "false") boolean includeRawResponses,
+            @RequestParam(required = false) String compression,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        // An explicit compression parameter produces a .csv.gz file; otherwise gzip
+        // is applied as a Content-Encoding when the client accepts it
+        ExportEncoding encoding;
+        try {
+            encoding = compression != null ? ExportEncoding.fromParameter(compression)
+                    : ExportEncoding.negotiate(acceptEncoding);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean asFile = compression != null;
 
         try {
-            logger.info("Starting CSV export for survey ID: {}", surveyId);
+            // Fail with 404 before the response is committed
+            exportService.ensureSurveyExists(surveyId);
+
+            logger.info("Starting CSV export for survey ID: {} (encoding {})", surveyId, encoding.getToken());
 
             ExportOptions options = new ExportOptions(
                     includeQuestionAnalysis,
                     includeRespondentData,
                     includeRawResponses);
 
-            byte[] csvData = exportService.exportSurveyAnalysisAsCSV(surveyId, options);
+            StreamingResponseBody body = outputStream -> {
+                try {
+                    exportService.writeSurveyAnalysisAsCSV(surveyId, options, encoding, outputStream);
+                    logger.info("CSV export completed successfully for survey ID: {}", surveyId);
+                } catch (Exception e) {
+                    // Headers are already sent; the client sees a truncated download
+                    logger.error("Error streaming survey analysis for ID: {}", surveyId, e);
+                    throw e;
+                }
+            };
+
+            String fileName = "survey_analysis_" + surveyId + "_" +
+                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv";
+
+            HttpHeaders headers = new HttpHeaders();
+            if (asFile && encoding == ExportEncoding.GZIP) {
+                headers.setContentType(MediaType.parseMediaType("application/gzip"));
+                fileName += encoding.getFileSuffix();
+            } else {
+                headers.setContentType(MediaType.parseMediaType("text/csv"));
+                if (encoding == ExportEncoding.GZIP) {
+                    headers.set(HttpHeaders.CONTENT_ENCODING, encoding.getToken());
+                }
+            }
+            if (!asFile) {
+                headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+            }
+            headers.setContentDisposition(ContentDisposition.attachment()
+                    .filename(fileName)
+                    .build());
+
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(body);
+
+        } catch (IllegalArgumentException e) {
+            logger.error("Survey not found for ID: {}", surveyId, e);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (Exception e) {
+            logger.error("Error exporting survey analysis for ID: {}", surveyId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Export survey analysis as an XLSX workbook (one sheet per section),
+     * streamed to the client as it is generated
+     */
+    @GetMapping("/surveys/{surveyId}/analysis/xlsx")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportSurveyAnalysisAsXLSX(
+            @PathVariable Long surveyId,
+            @RequestParam(defaultValue = "true") boolean includeQuestionAnalysis,
+            @RequestParam(defaultValue = "true") boolean includeRespondentData,
+            @RequestParam(defaultValue = "false") boolean includeRawResponses) {
+
+        try {
+            // Fail with 404 before the response is committed
+            exportService.ensureSurveyExists(surveyId);
 
-            logger.info("CSV export completed successfully for survey ID: {}, data size: {} bytes",
-                    surveyId, csvData.length);
+            logger.info("Starting XLSX export for survey ID: {}", surveyId);
+
+            ExportOptions options = new ExportOptions(
+                    includeQuestionAnalysis,
+                    includeRespondentData,
+                    includeRawResponses);
+
+            StreamingResponseBody body = outputStream -> {
+                try {
+                    exportService.writeSurveyAnalysisAsXLSX(surveyId, options, outputStream);
+                    logger.info("XLSX export completed successfully for survey ID: {}", surveyId);
+                } catch (Exception e) {
+                    logger.error("Error streaming XLSX analysis for ID: {}", surveyId, e);
+                    throw e;
+                }
+            };
 
             HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("text/csv"));
+            headers.setContentType(MediaType.parseMediaType(
+                    "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
             headers.setContentDisposition(ContentDisposition.attachment()
                     .filename("survey_analysis_" + surveyId + "_" +
-                            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv")
+                            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx")
                     .build());
 
             return ResponseEntity.ok()
                     .headers(headers)
-                    .body(csvData);
+                    .body(body);
 
         } catch (IllegalArgumentException e) {
             logger.error("Survey not found for ID: {}", surveyId, e);
@@ -75,4 +186,187 @@ public class ExportController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Export raw answers as NDJSON (one JSON object per line) for data
+     * pipelines. Only answers created after {@code since} and up to the
+     * returned X-Export-Watermark are included; pass that watermark as the
+     * next {@code since} to pull only new rows. The watermark trails the
+     * newest answers by a grace period so rows still being committed are not
+     * skipped (see {@link ExportService#answerWatermark}).
+     */
+    @GetMapping("/answers/ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAnswersAsNDJSON(
+            @RequestParam(required = false) Long surveyId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since) {
+
+        try {
+            if (surveyId != null) {
+                exportService.ensureSurveyExists(surveyId);
+            }
+            Instant from = since != null ? since : Instant.EPOCH;
+            // Fix the upper bound before streaming so the watermark can go in a header;
+            // it lags behind uncommitted rows, so the next run picks them up
+            Instant until = exportService.answerWatermark(surveyId, from);
+
+            logger.info("Starting NDJSON export (survey {}, since {}, until {})", surveyId, from, until);
+
+            StreamingResponseBody body = outputStream -> {
+                try {
+                    exportService.writeAnswersAsNDJSON(surveyId, from, until, outputStream);
+                } catch (Exception e) {
+                    logger.error("Error streaming NDJSON export (survey {}, since {})", surveyId, from, e);
+                    throw e;
+                }
+            };
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                    .header("X-Export-Watermark", until.toString())
+                    .body(body);
+
+        } catch (IllegalArgumentException e) {
+            logger.error("Survey not found for ID: {}", surveyId, e);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (Exception e) {
+            logger.error("Error exporting answers as NDJSON", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Export several surveys' analysis CSVs as one ZIP (plus manifest.json with
+     * per-survey timing), generated in parallel and streamed as each finishes
+     */
+    @GetMapping("/surveys/analysis/zip")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportSurveysAsZip(
+            @RequestParam List<Long> surveyIds,
+            @RequestParam(defaultValue = "true") boolean includeQuestionAnalysis,
+            @RequestParam(defaultValue = "true") boolean includeRespondentData,
+            @RequestParam(defaultValue = "false") boolean includeRawResponses) {
+
+        List<Long> ids;
+        try {
+            ids = bulkExportService.validateSurveyIds(surveyIds);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected bulk export request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
+        ExportOptions options = new ExportOptions(
+                includeQuestionAnalysis,
+                includeRespondentData,
+                includeRawResponses);
+        logger.info("Starting ZIP export for {} surveys", ids.size());
+
+        StreamingResponseBody body = outputStream -> {
+            try {
+                bulkExportService.writeSurveysAsZip(ids, options, outputStream);
+                logger.info("ZIP export of {} surveys completed", ids.size());
+            } catch (Exception e) {
+                logger.error("Error streaming ZIP export of surveys {}", ids, e);
+                throw e;
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename("survey_exports_" +
+                        LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".zip")
+                .build());
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+
+    /**
+     * Start a background CSV export; poll the returned job and download the file
+     * when it is COMPLETED
+     */
+    @PostMapping("/surveys/{surveyId}/analysis/csv/jobs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ExportJobStatus>> submitCsvExportJob(
+            @PathVariable Long surveyId,
+            @RequestParam(defaultValue = "true") boolean includeQuestionAnalysis,
+            @RequestParam(defaultValue = "true") boolean includeRespondentData,
+            @RequestParam(defaultValue = "false") boolean includeRawResponses,
+            @RequestParam(defaultValue = "none") String compression) {
+        ExportEncoding encoding;
+        try {
+            encoding = ExportEncoding.fromParameter(compression);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage(), HttpStatus.BAD_REQUEST));
+        }
+
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            ExportOptions options = new ExportOptions(
+                    includeQuestionAnalysis,
+                    includeRespondentData,
+                    includeRawResponses);
+
+            ExportJobStatus job = exportJobService.submitCsvExport(surveyId, options, encoding, auth.getName());
+            ApiResponse<ExportJobStatus> response = ApiResponse.success(job, "Export job accepted",
+                    HttpStatus.ACCEPTED);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/exports/jobs/" + job.jobId()))
+                    .body(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<ExportJobStatus> response = ApiResponse.error(e.getMessage(), HttpStatus.NOT_FOUND);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (IllegalStateException e) {
+            ApiResponse<ExportJobStatus> response = ApiResponse.error(e.getMessage(), HttpStatus.TOO_MANY_REQUESTS);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
+        } catch (Exception e) {
+            logger.error("Error submitting export job for survey ID: {}", surveyId, e);
+            ApiResponse<ExportJobStatus> response = ApiResponse.error(
+                    "Failed to submit export job: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
+    /**
+     * Get the status and progress of an export job
+     */
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ExportJobStatus>> getExportJob(@PathVariable String jobId) {
+        return exportJobService.getStatus(jobId)
+                .map(job -> ResponseEntity.ok(ApiResponse.success(job, "Export job retrieved successfully")))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("Export job not found: " + jobId, HttpStatus.NOT_FOUND)));
+    }
+
+    /**
+     * Download a completed export. Range requests are supported, so interrupted
+     * downloads can resume.
+     */
+    @GetMapping("/jobs/{jobId}/download")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Resource> downloadExportJob(@PathVariable String jobId) {
+        try {
+            ExportArtifact artifact = exportJobService.getArtifact(jobId);
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.parseMediaType(
+                    artifact.encoding() == ExportEncoding.GZIP ? "application/gzip" : "text/csv"));
+            headers.setContentDisposition(ContentDisposition.attachment()
+                    .filename(artifact.fileName())
+                    .build());
+            // Lets clients resume with If-Range; a job's file never changes
+            headers.setETag("\"" + artifact.jobId() + "\"");
+
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(new FileSystemResource(artifact.file()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
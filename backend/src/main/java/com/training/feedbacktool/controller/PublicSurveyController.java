@@ -1,16 +1,24 @@
 package com.training.feedbacktool.controller;
 
 import com.training.feedbacktool.common.ApiResponse;
-import com.training.feedbacktool.dto.PublicSurveyResponse;
 import com.training.feedbacktool.dto.SubmitResponseRequest;
+import com.training.feedbacktool.service.PublicSurveyCache;
 import com.training.feedbacktool.service.ResponseService;
+import com.training.feedbacktool.service.SubmissionIngestionService;
 import com.training.feedbacktool.service.SurveyService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
 @RestController
 @RequestMapping("/api/public/surveys")
 @CrossOrigin(origins = "*")
@@ -18,30 +26,48 @@ public class PublicSurveyController {
 
     private final SurveyService surveyService;
     private final ResponseService responseService;
+    private final SubmissionIngestionService ingestionService;
+
+    @Value("${app.public-survey.max-age-seconds:0}")
+    private long maxAgeSeconds;
 
-    public PublicSurveyController(SurveyService surveyService, ResponseService responseService) {
+    public PublicSurveyController(SurveyService surveyService, ResponseService responseService,
+            SubmissionIngestionService ingestionService) {
         this.surveyService = surveyService;
         this.responseService = responseService;
+        this.ingestionService = ingestionService;
     }
 
-    // GET /public/surveys/{id} -> respondents fetch survey + questions
+    // GET /public/surveys/{id} -> respondents fetch survey + questions. The body
+    // is pre-serialized per survey version; a matching If-None-Match gets a 304
+    // (handled by Spring from the ETag on the response entity)
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<PublicSurveyResponse>> getSurvey(@PathVariable Long id) {
+    public ResponseEntity<?> getSurvey(@PathVariable Long id) {
         try {
-            PublicSurveyResponse survey = surveyService.findByIdWithQuestions(id);
-            ApiResponse<PublicSurveyResponse> response = ApiResponse.success(survey, "Survey retrieved successfully");
-            return ResponseEntity.ok(response);
+            PublicSurveyCache.Payload payload = surveyService.getPublicSurveyPayload(id);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(payload.etag())
+                    .cacheControl(cacheControl())
+                    .body(payload.json());
         } catch (IllegalArgumentException e) {
-            ApiResponse<PublicSurveyResponse> response = ApiResponse.error("Survey not found with ID: " + id,
+            ApiResponse<Object> response = ApiResponse.error("Survey not found with ID: " + id,
                     HttpStatus.NOT_FOUND);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
         } catch (Exception e) {
-            ApiResponse<PublicSurveyResponse> response = ApiResponse
+            ApiResponse<Object> response = ApiResponse
                     .error("Failed to retrieve survey: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
             return ResponseEntity.internalServerError().body(response);
         }
     }
 
+    private CacheControl cacheControl() {
+        // Zero max-age: clients revalidate every time and get a 304 while unchanged
+        return maxAgeSeconds > 0
+                ? CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic().mustRevalidate()
+                : CacheControl.noCache().cachePublic();
+    }
+
     // POST /public/surveys/{id}/responses -> respondents submit answers
     @PostMapping("/{id}/responses")
     public ResponseEntity<ApiResponse<String>> submitResponses(
@@ -51,6 +77,23 @@ public class PublicSurveyController {
 
         try {
             String authHeader = httpRequest.getHeader("Authorization");
+
+            // Write-behind mode: validate now, persist later from the ingestion queue
+            if (ingestionService.isEnabled()) {
+                Optional<String> receiptId = ingestionService.enqueue(id, request, authHeader);
+                if (receiptId.isEmpty()) {
+                    ApiResponse<String> response = ApiResponse.error(
+                            "Too many submissions right now, please retry shortly",
+                            HttpStatus.SERVICE_UNAVAILABLE);
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ingestionService.getRetryAfterSeconds()))
+                            .body(response);
+                }
+                ApiResponse<String> response = ApiResponse.success(receiptId.get(),
+                        "Survey response accepted for processing", HttpStatus.ACCEPTED);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+            }
+
             responseService.submitSurveyResponse(id, request, authHeader);
             ApiResponse<String> response = ApiResponse.success("Response submitted successfully",
                     "Survey response submitted successfully", HttpStatus.CREATED);
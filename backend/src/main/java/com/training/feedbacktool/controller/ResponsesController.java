@@ -7,6 +7,7 @@ import com.training.feedbacktool.entity.Answer;
 import com.training.feedbacktool.entity.User;
 import com.training.feedbacktool.repository.ResponsesRepository;
 import com.training.feedbacktool.repository.AnswersRepository;
+import com.training.feedbacktool.repository.SurveyRepository;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
@@ -27,10 +28,13 @@ public class ResponsesController {
 
     private final ResponsesRepository responsesRepository;
     private final AnswersRepository answersRepository;
+    private final SurveyRepository surveyRepository;
 
-    public ResponsesController(ResponsesRepository responsesRepository, AnswersRepository answersRepository) {
+    public ResponsesController(ResponsesRepository responsesRepository, AnswersRepository answersRepository,
+            SurveyRepository surveyRepository) {
         this.responsesRepository = responsesRepository;
         this.answersRepository = answersRepository;
+        this.surveyRepository = surveyRepository;
     }
 
     @GetMapping("/debug")
@@ -69,8 +73,14 @@ public class ResponsesController {
     public ResponseEntity<ApiResponse<Map<String, Object>>> getResponsesBySurveyId(@PathVariable Long surveyId) {
         try {
             System.out.println("Getting responses for survey ID: " + surveyId);
-            List<Answer> answers = answersRepository.findBySurveyId(surveyId);
-            List<Response> surveyResponses = responsesRepository.findBySurveyId(surveyId);
+            // Deleted surveys keep their responses until purged; do not serve them
+            if (!surveyRepository.existsById(surveyId)) {
+                ApiResponse<Map<String, Object>> response = ApiResponse.error(
+                        "Survey not found with ID: " + surveyId, HttpStatus.NOT_FOUND);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
+            List<Answer> answers = answersRepository.findBySurveyIdWithDetails(surveyId);
+            List<Response> surveyResponses = responsesRepository.findBySurveyIdWithUser(surveyId);
             System.out.println("Found " + answers.size() + " answers and " + surveyResponses.size()
                     + " responses for survey " + surveyId);
 
@@ -87,7 +97,10 @@ public class ResponsesController {
             for (Answer answer : answers) {
                 User user = answer.getUser();
                 String respondentKey;
-                if (user != null) {
+                if (answer.getResponse() != null) {
+                    // Answers linked to their submission are grouped by it directly
+                    respondentKey = "response_" + answer.getResponse().getId();
+                } else if (user != null) {
                     respondentKey = user.getEmail(); // Use email as unique identifier for authenticated users
                 } else {
                     // For anonymous users, we'll group them by creation time proximity
@@ -138,7 +151,8 @@ public class ResponsesController {
 
                 // Add completion time from Response entity
                 String userKey = user != null ? user.getEmail() : "anonymous_" + firstAnswer.getId();
-                Response matchingResponse = responseByUser.get(userKey);
+                Response matchingResponse = firstAnswer.getResponse() != null ? firstAnswer.getResponse()
+                        : responseByUser.get(userKey);
                 if (matchingResponse == null && user == null) {
                     // For anonymous users, try to find response by time proximity
                     matchingResponse = surveyResponses.stream()
@@ -1,14 +1,18 @@
 package com.training.feedbacktool.controller;
 
 import com.training.feedbacktool.common.ApiResponse;
+import com.training.feedbacktool.common.PaginationUtils;
 import com.training.feedbacktool.service.SurveyService;
 import com.training.feedbacktool.dto.AdminSurveyResponse;
 import com.training.feedbacktool.dto.CreateSurveyRequest;
 import com.training.feedbacktool.dto.SurveyResponse;
 import com.training.feedbacktool.dto.PublicSurveyResponse;
+import com.training.feedbacktool.dto.SurveyPurgeStatus;
 import com.training.feedbacktool.dto.SurveyResultsResponse;
 import com.training.feedbacktool.dto.UpdateSurveyRequest;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,6 +24,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.net.URI;
@@ -81,17 +86,43 @@ public class SurveyController {
         }
     }
 
+    /**
+     * Admin survey list with statistics. Without {@code page} the most recent
+     * surveys are returned as a plain list (capped by
+     * {@code app.survey-list.unpaged-max-size}); with it, one sorted page plus
+     * pagination metadata.
+     */
     @GetMapping("/admin")
     @PreAuthorize("hasRole('ADMIN')") // Admin only
-    public ResponseEntity<ApiResponse<List<AdminSurveyResponse>>> listAllWithStats() {
+    public ResponseEntity<? extends ApiResponse<?>> listAllWithStats(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) String sortDirection) {
         try {
-            List<AdminSurveyResponse> surveys = service.listAllWithStats();
+            if (page != null) {
+                Pageable pageable = PaginationUtils.createPageable(page, size,
+                        sortBy != null ? sortBy : "createdAt", sortDirection != null ? sortDirection : "desc");
+                Page<AdminSurveyResponse> surveys = service.listWithStats(pageable);
+                return ResponseEntity.ok(PaginationUtils.createPaginatedResponse(surveys,
+                        surveys.isEmpty() ? "No surveys found" : PaginationUtils.getPaginationInfo(surveys)));
+            }
+
+            Page<AdminSurveyResponse> recent = service.listRecentWithStats();
+            List<AdminSurveyResponse> surveys = recent.getContent();
             ApiResponse<List<AdminSurveyResponse>> response = ApiResponse.success(surveys,
                     surveys.isEmpty() ? "No surveys found"
-                            : "Successfully retrieved " + surveys.size() + " surveys with statistics");
+                            : recent.hasNext()
+                                    ? "Retrieved the " + surveys.size() + " most recent of " + recent.getTotalElements()
+                                            + " surveys with statistics; request pages to see the rest"
+                                    : "Successfully retrieved " + surveys.size() + " surveys with statistics");
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<Object> response = ApiResponse.error("Invalid request: " + e.getMessage(),
+                    HttpStatus.BAD_REQUEST);
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
-            ApiResponse<List<AdminSurveyResponse>> response = ApiResponse
+            ApiResponse<Object> response = ApiResponse
                     .error("Failed to retrieve survey statistics: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
             return ResponseEntity.internalServerError().body(response);
         }
@@ -154,9 +185,11 @@ public class SurveyController {
 
     @GetMapping("/{id}/results")
     @PreAuthorize("hasRole('ADMIN')") // Admin only - survey results are sensitive
-    public ResponseEntity<ApiResponse<SurveyResultsResponse>> getSurveyResults(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<SurveyResultsResponse>> getSurveyResults(@PathVariable Long id,
+            @RequestParam(required = false) Integer version) {
         try {
-            SurveyResultsResponse results = service.getSurveyResults(id);
+            // Without a version, results are merged across compatible survey versions
+            SurveyResultsResponse results = service.getSurveyResults(id, version);
             ApiResponse<SurveyResultsResponse> response = ApiResponse.success(results,
                     "Survey results retrieved successfully");
             return ResponseEntity.ok(response);
@@ -164,6 +197,9 @@ public class SurveyController {
             ApiResponse<SurveyResultsResponse> response = ApiResponse.error("Survey not found with ID: " + id,
                     HttpStatus.NOT_FOUND);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (IllegalStateException e) {
+            ApiResponse<SurveyResultsResponse> response = ApiResponse.error(e.getMessage(), HttpStatus.BAD_REQUEST);
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             ApiResponse<SurveyResultsResponse> response = ApiResponse
                     .error("Failed to retrieve survey results: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -171,6 +207,25 @@ public class SurveyController {
         }
     }
 
+    // Progress of the background purge that follows a survey deletion
+    @GetMapping("/{id}/deletion")
+    @PreAuthorize("hasRole('ADMIN')") // Admin only
+    public ResponseEntity<ApiResponse<SurveyPurgeStatus>> getDeletionStatus(@PathVariable Long id) {
+        try {
+            SurveyPurgeStatus status = service.getDeletionStatus(id);
+            ApiResponse<SurveyPurgeStatus> response = ApiResponse.success(status,
+                    "Survey deletion status retrieved successfully");
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<SurveyPurgeStatus> response = ApiResponse.error(e.getMessage(), HttpStatus.NOT_FOUND);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (Exception e) {
+            ApiResponse<SurveyPurgeStatus> response = ApiResponse.error(
+                    "Failed to retrieve survey deletion status: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')") // Admin only
     public ResponseEntity<ApiResponse<Void>> deleteSurvey(@PathVariable Long id) {
@@ -12,5 +12,6 @@ public record AdminSurveyResponse(
                 Instant endDate,
                 int totalQuestions,
                 int totalResponses,
-                int completionRate) {
+                int completionRate, // % of submissions that answered every required question
+                int averageAnsweredRate) { // mean % of questions answered per submission
 }
\ No newline at end of file
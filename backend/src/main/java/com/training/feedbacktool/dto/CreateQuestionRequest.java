@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 public record CreateQuestionRequest(
+                Long id, // existing question being edited (optional; ignored on create)
                 @NotBlank @Size(max = 50) String type,
                 @NotBlank @Size(max = 1000) String questionText,
                 String optionsJson,
@@ -0,0 +1,17 @@
+package com.training.feedbacktool.dto;
+
+import java.time.Instant;
+
+/**
+ * An active survey with its question count and submission count (from the
+ * daily rollups, or the responses table until they are backfilled), read in
+ * one query for user dashboards
+ */
+public record DashboardSurveyRow(
+        Long id,
+        String title,
+        String description,
+        Instant createdAt,
+        Long questionCount,
+        Long responseCount) {
+}
@@ -0,0 +1,21 @@
+package com.training.feedbacktool.dto;
+
+import java.time.Instant;
+
+/**
+ * Flat answer row read from a cursor during exports (no entity graph)
+ */
+public record ExportAnswerRow(
+        Long answerId,
+        Long responseId,
+        Long surveyId,
+        Long questionId,
+        String questionText,
+        String questionType,
+        String answerText,
+        Integer ratingValue,
+        Long userId,
+        String userName,
+        String userEmail,
+        Instant submittedAt) {
+}
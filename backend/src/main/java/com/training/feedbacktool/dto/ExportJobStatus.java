@@ -0,0 +1,16 @@
+package com.training.feedbacktool.dto;
+
+import java.time.Instant;
+
+public record ExportJobStatus(
+        String jobId,
+        Long surveyId,
+        String status, // QUEUED, RUNNING, COMPLETED, FAILED
+        long bytesWritten, // progress while running, file size once completed
+        String fileName,
+        String error,
+        Instant submittedAt,
+        Instant startedAt,
+        Instant completedAt,
+        Instant expiresAt) {
+}
@@ -0,0 +1,20 @@
+package com.training.feedbacktool.dto;
+
+import java.time.Instant;
+
+/**
+ * One survey submission with its respondent and answer count, read from a
+ * cursor during exports
+ */
+public record ExportRespondentRow(
+        Long responseId,
+        Long userId,
+        String name,
+        String email,
+        Instant submittedAt,
+        Long answerCount) {
+
+    public boolean isAnonymous() {
+        return userId == null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.training.feedbacktool.dto;
+
+import java.time.Instant;
+
+/**
+ * An answer and the title of its survey, for the admin activity feed
+ */
+public record RecentAnswerRow(
+        Long id,
+        String surveyTitle,
+        Instant createdAt) {
+}
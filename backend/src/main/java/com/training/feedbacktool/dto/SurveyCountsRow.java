@@ -0,0 +1,16 @@
+package com.training.feedbacktool.dto;
+
+/**
+ * Question and submission statistics of one survey, read in a single grouped
+ * query for the admin survey list. {@code completeCount} is the number of
+ * submissions that answered every required question;
+ * {@code averageAnsweredRatio} is the mean share of questions answered per
+ * submission (null without submissions or questions).
+ */
+public record SurveyCountsRow(
+        Long surveyId,
+        long questionCount,
+        long responseCount,
+        long completeCount,
+        Double averageAnsweredRatio) {
+}
@@ -0,0 +1,16 @@
+package com.training.feedbacktool.dto;
+
+import java.time.Instant;
+
+public record SurveyPurgeStatus(
+        Long surveyId,
+        String status, // QUEUED, RUNNING, COMPLETED, FAILED
+        long answersDeleted,
+        long answersTotal, // counted when the purge starts
+        long responsesDeleted,
+        long responsesTotal,
+        String error,
+        Instant queuedAt,
+        Instant startedAt,
+        Instant completedAt) {
+}
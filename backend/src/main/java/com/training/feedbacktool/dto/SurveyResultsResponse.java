@@ -12,7 +12,9 @@ public record SurveyResultsResponse(
                 int totalResponses,
                 int totalQuestions,
                 List<QuestionResultDTO> questionResults,
-                List<RespondentDTO> respondents) {
+                List<RespondentDTO> respondents,
+                Integer surveyVersion, // version reported on, null when merged across versions
+                int currentVersion) {
 
         public record QuestionResultDTO(
                         Long questionId,
@@ -0,0 +1,14 @@
+package com.training.feedbacktool.dto;
+
+import java.time.Instant;
+
+/**
+ * A user's submissions to one survey: first submission time and the summed
+ * completion time of the submissions that recorded one
+ */
+public record UserCompletionRow(
+        Long surveyId,
+        Instant completedAt,
+        Long completionSeconds,
+        Long timedSubmissions) {
+}
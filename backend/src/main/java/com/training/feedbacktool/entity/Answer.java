@@ -5,10 +5,18 @@ import jakarta.validation.constraints.Size;
 import java.time.Instant;
 
 @Entity
-@Table(name = "answers")
+@Table(name = "answers", indexes = {
+        @Index(name = "idx_answers_created_at", columnList = "created_at"),
+        @Index(name = "idx_answers_survey_created_at", columnList = "survey_id, created_at"),
+        @Index(name = "idx_answers_survey_question", columnList = "survey_id, question_id"),
+        @Index(name = "idx_answers_user_survey", columnList = "user_id, survey_id")
+})
 public class Answer {
+    // Pooled sequence (a table on MySQL) instead of IDENTITY so Hibernate can
+    // batch the inserts of a submission
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "answers_seq")
+    @SequenceGenerator(name = "answers_seq", sequenceName = "answers_seq", allocationSize = 50)
     private Long id;
 
     @Size(max = 1000, message = "Answer text cannot exceed 1000 characters")
@@ -30,12 +38,23 @@ public class Answer {
     @JoinColumn(name = "question_id", nullable = false)
     private Question question;
 
+    // Survey of the question, denormalized so survey-scoped queries filter
+    // answers without joining questions; set on write
+    @Column(name = "survey_id", nullable = false)
+    private Long surveyId;
+
     // Relationship to User (who provided the answer) - nullable for anonymous
     // responses
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = true)
     private User user;
 
+    // Relationship to Response (the submission this answer was part of) - nullable
+    // for answers recorded before submissions were linked
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "response_id", nullable = true)
+    private Response response;
+
     public Answer() {
     }
 
@@ -58,6 +77,13 @@ public class Answer {
         this.user = user;
     }
 
+    @PrePersist
+    protected void onCreate() {
+        if (surveyId == null && question != null) {
+            surveyId = question.getSurvey().getId();
+        }
+    }
+
     @PreUpdate
     protected void onUpdate() {
         updatedAt = Instant.now();
@@ -112,6 +138,14 @@ public class Answer {
         this.question = question;
     }
 
+    public Long getSurveyId() {
+        return surveyId;
+    }
+
+    public void setSurveyId(Long surveyId) {
+        this.surveyId = surveyId;
+    }
+
     public User getUser() {
         return user;
     }
@@ -119,4 +153,12 @@ public class Answer {
     public void setUser(User user) {
         this.user = user;
     }
+
+    public Response getResponse() {
+        return response;
+    }
+
+    public void setResponse(Response response) {
+        this.response = response;
+    }
 }
\ No newline at end of file
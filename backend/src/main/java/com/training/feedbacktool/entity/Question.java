@@ -1,13 +1,20 @@
 package com.training.feedbacktool.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "questions")
 public class Question {
 
+    // Pooled sequence (a table on MySQL) instead of IDENTITY so Hibernate can
+    // batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "questions_seq")
+    @SequenceGenerator(name = "questions_seq", sequenceName = "questions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -30,11 +37,28 @@ public class Question {
     @Column(name = "required")
     private Boolean required = false;
 
+    // Survey version this question belongs to; questions are immutable once a
+    // newer version replaces them (retired) so existing answers keep their meaning
+    @Column(name = "survey_version", nullable = false, columnDefinition = "INT NOT NULL DEFAULT 1")
+    private Integer surveyVersion = 1;
+
+    @Column(name = "retired", nullable = false, columnDefinition = "BOOLEAN NOT NULL DEFAULT FALSE")
+    private boolean retired;
+
+    // First-version question this one was copied from (null for the original);
+    // links a question across versions for merged results
+    @Column(name = "origin_question_id")
+    private Long originQuestionId;
+
     // getters/setters
     public Long getId() {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public Survey getSurvey() {
         return survey;
     }
@@ -82,4 +106,35 @@ public class Question {
     public void setRequired(Boolean required) {
         this.required = required;
     }
+
+    public Integer getSurveyVersion() {
+        return surveyVersion;
+    }
+
+    public void setSurveyVersion(Integer surveyVersion) {
+        this.surveyVersion = surveyVersion;
+    }
+
+    public boolean isRetired() {
+        return retired;
+    }
+
+    public void setRetired(boolean retired) {
+        this.retired = retired;
+    }
+
+    public Long getOriginQuestionId() {
+        return originQuestionId;
+    }
+
+    public void setOriginQuestionId(Long originQuestionId) {
+        this.originQuestionId = originQuestionId;
+    }
+
+    /**
+     * Id shared by every version of this question
+     */
+    public Long getLineageId() {
+        return originQuestionId != null ? originQuestionId : id;
+    }
 }
@@ -15,8 +15,11 @@ import java.time.Instant;
 @EqualsAndHashCode(exclude = { "survey", "user" })
 @ToString(exclude = { "survey", "user" })
 public class Response {
+    // Pooled sequence (a table on MySQL) instead of IDENTITY so Hibernate can
+    // batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "responses_seq")
+    @SequenceGenerator(name = "responses_seq", sequenceName = "responses_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Response text cannot be blank")
@@ -34,6 +37,10 @@ public class Response {
     @Column(name = "completion_time_seconds")
     private Integer completionTimeSeconds; // Time taken to complete the survey in seconds
 
+    @Builder.Default
+    @Column(name = "survey_version", nullable = false, columnDefinition = "INT NOT NULL DEFAULT 1")
+    private Integer surveyVersion = 1; // Survey version whose questions were answered
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "survey_id", nullable = false)
     private Survey survey;
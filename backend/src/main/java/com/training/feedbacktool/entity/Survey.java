@@ -1,7 +1,10 @@
 package com.training.feedbacktool.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.Instant;
@@ -9,7 +12,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "surveys")
+// Deleted surveys are tombstoned and hidden from every read until the purge
+// worker removes them with their answers and responses
+@SQLRestriction("deleted_at IS NULL")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "surveys", indexes = {
+        @Index(name = "idx_surveys_status", columnList = "status"),
+        @Index(name = "idx_surveys_created_at", columnList = "created_at"),
+        @Index(name = "idx_surveys_deleted_at", columnList = "deleted_at")
+})
 public class Survey {
 
     @Id
@@ -39,7 +51,18 @@ public class Survey {
     @Column(name = "end_date")
     private Instant endDate;
 
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
+    // Version that new submissions answer; bumped when questions change after
+    // responses arrived (copy-on-write, see SurveyService.updateSurvey)
+    @Column(name = "current_version", nullable = false, columnDefinition = "INT NOT NULL DEFAULT 1")
+    private Integer currentVersion = 1;
+
+    // Questions of the current version only; retired versions stay in the table
     @OneToMany(mappedBy = "survey", cascade = CascadeType.ALL, orphanRemoval = true)
+    @SQLRestriction("retired = false")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Question> questions = new ArrayList<>();
 
     // keep both sides in sync if you replace the list
@@ -118,6 +141,22 @@ public class Survey {
         this.endDate = endDate;
     }
 
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(Instant deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    public Integer getCurrentVersion() {
+        return currentVersion;
+    }
+
+    public void setCurrentVersion(Integer currentVersion) {
+        this.currentVersion = currentVersion;
+    }
+
     public List<Question> getQuestions() {
         return questions;
     }
@@ -0,0 +1,46 @@
+package com.training.feedbacktool.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Per-survey, per-day (UTC) submission totals maintained on every submission so
+ * dashboards do not have to scan answers/responses.
+ */
+@Entity
+@Table(name = "survey_daily_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_survey_daily_stats_survey_day", columnNames = { "survey_id", "day" })
+}, indexes = {
+        @Index(name = "idx_survey_daily_stats_day", columnList = "day")
+})
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED) // JPA requirement
+@AllArgsConstructor
+@Builder
+public class SurveyDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "survey_id", nullable = false)
+    private Long surveyId;
+
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "response_count", nullable = false)
+    @Builder.Default
+    private Long responseCount = 0L;
+
+    @Column(name = "answer_count", nullable = false)
+    @Builder.Default
+    private Long answerCount = 0L;
+
+    @Column(name = "sum_completion_seconds", nullable = false)
+    @Builder.Default
+    private Long sumCompletionSeconds = 0L;
+}
@@ -1,42 +1,143 @@
 package com.training.feedbacktool.repository;
 
+import com.training.feedbacktool.dto.ExportAnswerRow;
+import com.training.feedbacktool.dto.RecentAnswerRow;
 import com.training.feedbacktool.entity.Answer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface AnswersRepository extends JpaRepository<Answer, Long> {
 
     // Find answers by survey ID
-    @Query("SELECT a FROM Answer a WHERE a.question.survey.id = :surveyId")
+    @Query("SELECT a FROM Answer a WHERE a.surveyId = :surveyId")
     List<Answer> findBySurveyId(@Param("surveyId") Long surveyId);
 
+    // Whether a survey has any answer (derived exists query: stops at the first row)
+    boolean existsBySurveyId(Long surveyId);
+
+    // Find answers by survey ID with question and user loaded - for building results
+    // in a single pass
+    @Query("SELECT a FROM Answer a JOIN FETCH a.question q LEFT JOIN FETCH a.user "
+            + "WHERE a.surveyId = :surveyId")
+    List<Answer> findBySurveyIdWithDetails(@Param("surveyId") Long surveyId);
+
+    // Stream every answer of a survey as flat rows for export analytics. A fetch
+    // size of Integer.MIN_VALUE makes MySQL stream the result set row by row;
+    // callers must consume it inside a transaction and close it.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new com.training.feedbacktool.dto.ExportAnswerRow(a.id, r.id, a.surveyId, q.id, q.questionText, q.type, "
+            + "a.answerText, a.ratingValue, u.id, u.name, u.email, a.createdAt) "
+            + "FROM Answer a JOIN a.question q LEFT JOIN a.response r LEFT JOIN a.user u "
+            + "WHERE a.surveyId = :surveyId")
+    Stream<ExportAnswerRow> streamExportRowsBySurveyId(@Param("surveyId") Long surveyId);
+
+    // Stream the answers of a survey's submissions in submission order, for raw
+    // response exports (same cursor rules as above)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new com.training.feedbacktool.dto.ExportAnswerRow(a.id, r.id, a.surveyId, q.id, q.questionText, q.type, "
+            + "a.answerText, a.ratingValue, u.id, u.name, u.email, a.createdAt) "
+            + "FROM Answer a JOIN a.response r JOIN a.question q LEFT JOIN r.user u "
+            + "WHERE a.surveyId = :surveyId ORDER BY r.createdAt, r.id, q.id")
+    Stream<ExportAnswerRow> streamSubmittedExportRowsBySurveyId(@Param("surveyId") Long surveyId);
+
+    // Stream answers of surveys that are not deleted created in (since, until],
+    // optionally for one survey, oldest first, for incremental raw exports (same
+    // cursor rules as above)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new com.training.feedbacktool.dto.ExportAnswerRow(a.id, r.id, a.surveyId, q.id, q.questionText, "
+            + "q.type, a.answerText, a.ratingValue, u.id, u.name, u.email, a.createdAt) "
+            + "FROM Answer a JOIN Survey s ON s.id = a.surveyId JOIN a.question q LEFT JOIN a.response r "
+            + "LEFT JOIN a.user u WHERE s.deletedAt IS NULL AND (:surveyId IS NULL OR a.surveyId = :surveyId) "
+            + "AND a.createdAt > :since AND a.createdAt <= :until ORDER BY a.createdAt, a.id")
+    Stream<ExportAnswerRow> streamExportRowsCreatedBetween(@Param("surveyId") Long surveyId,
+            @Param("since") java.time.Instant since, @Param("until") java.time.Instant until);
+
+    // Latest answer timestamp on surveys that are not deleted, optionally for one
+    // survey (export watermark)
+    @Query("SELECT MAX(a.createdAt) FROM Answer a JOIN Survey s ON s.id = a.surveyId "
+            + "WHERE s.deletedAt IS NULL AND (:surveyId IS NULL OR a.surveyId = :surveyId)")
+    java.time.Instant findLatestCreatedAt(@Param("surveyId") Long surveyId);
+
+    // Count answers of surveys that are not deleted created in [start, end) per
+    // 15-minute bucket (bucket = epoch seconds / 900). Every real-world UTC offset
+    // is a multiple of 15 minutes, so callers can roll these up into local days
+    // for any time zone.
+    @Query(value = "SELECT FLOOR(TIMESTAMPDIFF(SECOND, '1970-01-01 00:00:00', a.created_at) / 900) AS bucket, "
+            + "COUNT(*) AS total FROM answers a JOIN surveys s ON s.id = a.survey_id "
+            + "WHERE s.deleted_at IS NULL AND a.created_at >= :start AND a.created_at < :end GROUP BY bucket",
+            nativeQuery = true)
+    List<Object[]> countCreatedPerQuarterHour(@Param("start") java.time.Instant start,
+            @Param("end") java.time.Instant end);
+
     // Find answers by question ID
     @Query("SELECT a FROM Answer a WHERE a.question.id = :questionId")
     List<Answer> findByQuestionId(@Param("questionId") Long questionId);
 
-    // Delete answers by survey ID
+    // Most recent answers of surveys that are not deleted, newest first
+    @Query("SELECT new com.training.feedbacktool.dto.RecentAnswerRow(a.id, s.title, a.createdAt) "
+            + "FROM Answer a JOIN Survey s ON s.id = a.surveyId WHERE s.deletedAt IS NULL "
+            + "ORDER BY a.createdAt DESC, a.id DESC")
+    List<RecentAnswerRow> findRecentOnLiveSurveys(Pageable pageable);
+
+    // Answer counts of the given submissions
+    @Query("SELECT a.response.id, COUNT(a) FROM Answer a WHERE a.response.id IN :responseIds GROUP BY a.response.id")
+    List<Object[]> countByResponseIds(@Param("responseIds") Collection<Long> responseIds);
+
+    // Count answers of surveys that are not deleted (rollup completeness check)
+    @Query(value = "SELECT COUNT(*) FROM answers a JOIN surveys s ON s.id = a.survey_id "
+            + "WHERE s.deleted_at IS NULL", nativeQuery = true)
+    long countOnLiveSurveys();
+
+    // Answers per survey, for surveys that are not deleted
+    @Query(value = "SELECT a.survey_id, COUNT(*) FROM answers a JOIN surveys s ON s.id = a.survey_id "
+            + "WHERE s.deleted_at IS NULL GROUP BY a.survey_id", nativeQuery = true)
+    List<Object[]> countPerLiveSurvey();
+
+    // Count a survey's answers (progress total for survey purges)
+    @Query("SELECT COUNT(a) FROM Answer a WHERE a.surveyId = :surveyId")
+    long countBySurveyId(@Param("surveyId") Long surveyId);
+
+    // Last id of the next chunk of a survey's answers after the given id, or null
+    // when none are left (keyset paging for chunked survey purges)
+    @Query(value = "SELECT MAX(c.id) FROM (SELECT a.id FROM answers a "
+            + "WHERE a.survey_id = :surveyId AND a.id > :afterId ORDER BY a.id LIMIT :limit) c", nativeQuery = true)
+    Long findPurgeChunkEnd(@Param("surveyId") Long surveyId, @Param("afterId") long afterId,
+            @Param("limit") int limit);
+
+    // Delete a survey's answers in the id range (afterId, toId]; the range holds
+    // at most one chunk of them, so each statement only locks a bounded set of rows
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "answers"))
     @Modifying
-    @Query("DELETE FROM Answer a WHERE a.question.survey.id = :surveyId")
-    void deleteBySurveyId(@Param("surveyId") Long surveyId);
+    @Query(value = "DELETE FROM answers WHERE survey_id = :surveyId AND id > :afterId AND id <= :toId",
+            nativeQuery = true)
+    int deletePurgeChunk(@Param("surveyId") Long surveyId, @Param("afterId") long afterId,
+            @Param("toId") long toId);
 
     // Find surveys user has responded to
-    @Query("SELECT DISTINCT a.question.survey.id FROM Answer a WHERE a.user.id = :userId")
+    @Query("SELECT DISTINCT a.surveyId FROM Answer a WHERE a.user.id = :userId")
     List<Long> findSurveyIdsRespondedByUser(@Param("userId") Long userId);
 
     // Count answers by user for a specific survey
-    @Query("SELECT COUNT(a) FROM Answer a WHERE a.user.id = :userId AND a.question.survey.id = :surveyId")
+    @Query("SELECT COUNT(a) FROM Answer a WHERE a.user.id = :userId AND a.surveyId = :surveyId")
     Long countAnswersByUserAndSurvey(@Param("userId") Long userId, @Param("surveyId") Long surveyId);
 
     // Get completion date for user's survey responses
-    @Query("SELECT MIN(a.createdAt) FROM Answer a WHERE a.user.id = :userId AND a.question.survey.id = :surveyId")
+    @Query("SELECT MIN(a.createdAt) FROM Answer a WHERE a.user.id = :userId AND a.surveyId = :surveyId")
     java.time.Instant findCompletionDateByUserAndSurvey(@Param("userId") Long userId, @Param("surveyId") Long surveyId);
 
     // Find answers by user and survey - for getting user's own response
-    @Query("SELECT a FROM Answer a WHERE a.user.id = :userId AND a.question.survey.id = :surveyId ORDER BY a.question.orderNumber")
+    @Query("SELECT a FROM Answer a JOIN a.question q WHERE a.user.id = :userId AND a.surveyId = :surveyId "
+            + "ORDER BY q.orderNumber")
     List<Answer> findByUserIdAndSurveyId(@Param("userId") Long userId, @Param("surveyId") Long surveyId);
 
 }
@@ -0,0 +1,30 @@
+package com.training.feedbacktool.repository;
+
+import com.training.feedbacktool.entity.Question;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface QuestionRepository extends JpaRepository<Question, Long> {
+
+    // Questions of the survey's retired versions (the Survey.questions collection
+    // only holds the current version)
+    @Query("SELECT q FROM Question q WHERE q.survey.id = :surveyId AND q.retired = true")
+    List<Question> findRetiredBySurveyId(@Param("surveyId") Long surveyId);
+
+    // Questions of one survey version, current or retired
+    @Query("SELECT q FROM Question q WHERE q.survey.id = :surveyId AND q.surveyVersion = :version ORDER BY q.orderNumber")
+    List<Question> findBySurveyIdAndVersion(@Param("surveyId") Long surveyId, @Param("version") Integer version);
+
+    // Every question of a purged survey, all versions included
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "questions"))
+    @Modifying
+    @Query(value = "DELETE FROM questions WHERE survey_id = :surveyId", nativeQuery = true)
+    int purgeBySurveyId(@Param("surveyId") Long surveyId);
+}
@@ -1,12 +1,19 @@
 package com.training.feedbacktool.repository;
 
+import com.training.feedbacktool.dto.ExportRespondentRow;
+import com.training.feedbacktool.dto.UserCompletionRow;
 import com.training.feedbacktool.entity.Response;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ResponsesRepository extends JpaRepository<Response, Long> {
 
@@ -14,14 +21,67 @@ public interface ResponsesRepository extends JpaRepository<Response, Long> {
     @Query("SELECT r FROM Response r WHERE r.survey.id = :surveyId")
     List<Response> findBySurveyId(@Param("surveyId") Long surveyId);
 
+    // Find responses by survey ID with the respondent loaded
+    @Query("SELECT r FROM Response r LEFT JOIN FETCH r.user WHERE r.survey.id = :surveyId ORDER BY r.createdAt")
+    List<Response> findBySurveyIdWithUser(@Param("surveyId") Long surveyId);
+
+    // Count submissions of a survey
+    @Query("SELECT COUNT(r) FROM Response r WHERE r.survey.id = :surveyId")
+    long countBySurveyId(@Param("surveyId") Long surveyId);
+
+    // Most recent submissions of surveys that are not deleted, newest first,
+    // with their survey and user
+    @Query("SELECT r FROM Response r JOIN FETCH r.survey s LEFT JOIN FETCH r.user "
+            + "WHERE s.deletedAt IS NULL ORDER BY r.createdAt DESC, r.id DESC")
+    List<Response> findRecentOnLiveSurveys(Pageable pageable);
+
+    // Count submissions of surveys that are not deleted (rollup completeness check)
+    @Query(value = "SELECT COUNT(*) FROM responses r JOIN surveys s ON s.id = r.survey_id "
+            + "WHERE s.deleted_at IS NULL", nativeQuery = true)
+    long countOnLiveSurveys();
+
+    // Highest submission id of a survey (null when there are none)
+    @Query("SELECT MAX(r.id) FROM Response r WHERE r.survey.id = :surveyId")
+    Long findMaxIdBySurveyId(@Param("surveyId") Long surveyId);
+
+    // Count submissions of a survey made by signed-in users
+    @Query("SELECT COUNT(r) FROM Response r WHERE r.survey.id = :surveyId AND r.user IS NOT NULL")
+    long countAuthenticatedBySurveyId(@Param("surveyId") Long surveyId);
+
+    // Stream a survey's submissions with respondent and answer count, in
+    // submission order, for exports (MySQL streams rows with this fetch size;
+    // consume inside a transaction and close)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new com.training.feedbacktool.dto.ExportRespondentRow(r.id, u.id, u.name, u.email, r.createdAt, "
+            + "(SELECT COUNT(a) FROM Answer a WHERE a.response = r)) "
+            + "FROM Response r LEFT JOIN r.user u WHERE r.survey.id = :surveyId ORDER BY r.createdAt, r.id")
+    Stream<ExportRespondentRow> streamExportRowsBySurveyId(@Param("surveyId") Long surveyId);
+
+    // A user's submissions grouped per survey: first submission and summed
+    // completion time (one row per survey the user has completed)
+    @Query("SELECT new com.training.feedbacktool.dto.UserCompletionRow(r.survey.id, MIN(r.createdAt), "
+            + "SUM(r.completionTimeSeconds), COUNT(r.completionTimeSeconds)) "
+            + "FROM Response r WHERE r.user.id = :userId GROUP BY r.survey.id")
+    List<UserCompletionRow> findCompletionRowsByUserId(@Param("userId") Long userId);
+
     // Find responses by user ID
     @Query("SELECT r FROM Response r WHERE r.user.id = :userId")
     List<Response> findByUserId(@Param("userId") Long userId);
 
-    // Delete responses by survey ID
+    // Last id of the next chunk of a survey's responses after the given id, or
+    // null when none are left (keyset paging for chunked survey purges)
+    @Query(value = "SELECT MAX(c.id) FROM (SELECT r.id FROM responses r "
+            + "WHERE r.survey_id = :surveyId AND r.id > :afterId ORDER BY r.id LIMIT :limit) c", nativeQuery = true)
+    Long findPurgeChunkEnd(@Param("surveyId") Long surveyId, @Param("afterId") long afterId,
+            @Param("limit") int limit);
+
+    // Delete a survey's responses in the id range (afterId, toId]
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "responses"))
     @Modifying
-    @Query("DELETE FROM Response r WHERE r.survey.id = :surveyId")
-    void deleteBySurveyId(@Param("surveyId") Long surveyId);
+    @Query(value = "DELETE FROM responses WHERE survey_id = :surveyId AND id > :afterId AND id <= :toId",
+            nativeQuery = true)
+    int deletePurgeChunk(@Param("surveyId") Long surveyId, @Param("afterId") long afterId,
+            @Param("toId") long toId);
 
     // Find response by user and survey - for getting user's own response completion
     // time
@@ -0,0 +1,82 @@
+package com.training.feedbacktool.repository;
+
+import com.training.feedbacktool.entity.SurveyDailyStats;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SurveyDailyStatsRepository extends JpaRepository<SurveyDailyStats, Long> {
+
+    // Add one submission's totals to the survey's row for that day. Native DML
+    // names the table it touches so Hibernate does not evict the whole
+    // second-level cache (likewise below)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "survey_daily_stats"))
+    @Modifying
+    @Query(value = "INSERT INTO survey_daily_stats "
+            + "(survey_id, day, response_count, answer_count, sum_completion_seconds) "
+            + "VALUES (:surveyId, :day, :responses, :answers, :completionSeconds) "
+            + "ON DUPLICATE KEY UPDATE response_count = response_count + VALUES(response_count), "
+            + "answer_count = answer_count + VALUES(answer_count), "
+            + "sum_completion_seconds = sum_completion_seconds + VALUES(sum_completion_seconds)", nativeQuery = true)
+    void upsertIncrement(@Param("surveyId") Long surveyId, @Param("day") LocalDate day,
+            @Param("responses") long responses, @Param("answers") long answers,
+            @Param("completionSeconds") long completionSeconds);
+
+    // Delete rollups by survey ID
+    @Modifying
+    @Query("DELETE FROM SurveyDailyStats s WHERE s.surveyId = :surveyId")
+    void deleteBySurveyId(@Param("surveyId") Long surveyId);
+
+    // Recompute response totals for one survey from the responses table. An
+    // upsert: a live submission may re-create a day's row between the rebuild's
+    // delete and this insert
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "survey_daily_stats"))
+    @Modifying
+    @Query(value = "INSERT INTO survey_daily_stats "
+            + "(survey_id, day, response_count, answer_count, sum_completion_seconds) "
+            + "SELECT r.survey_id, DATE(r.created_at), COUNT(*), 0, COALESCE(SUM(r.completion_time_seconds), 0) "
+            + "FROM responses r WHERE r.survey_id = :surveyId "
+            + "GROUP BY r.survey_id, DATE(r.created_at) "
+            + "ON DUPLICATE KEY UPDATE response_count = VALUES(response_count), "
+            + "sum_completion_seconds = VALUES(sum_completion_seconds)", nativeQuery = true)
+    void upsertResponseTotalsForSurvey(@Param("surveyId") Long surveyId);
+
+    // Recompute answer totals for one survey from the answers table
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "survey_daily_stats"))
+    @Modifying
+    @Query(value = "INSERT INTO survey_daily_stats "
+            + "(survey_id, day, response_count, answer_count, sum_completion_seconds) "
+            + "SELECT a.survey_id, DATE(a.created_at), 0, COUNT(*), 0 "
+            + "FROM answers a WHERE a.survey_id = :surveyId "
+            + "GROUP BY a.survey_id, DATE(a.created_at) "
+            + "ON DUPLICATE KEY UPDATE answer_count = VALUES(answer_count)", nativeQuery = true)
+    void upsertAnswerTotalsForSurvey(@Param("surveyId") Long surveyId);
+
+    // Answers per day across all surveys
+    @Query("SELECT s.day, SUM(s.answerCount) FROM SurveyDailyStats s "
+            + "WHERE s.day >= :from AND s.day <= :to GROUP BY s.day")
+    List<Object[]> sumAnswersPerDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Answers in a day range across all surveys
+    @Query("SELECT COALESCE(SUM(s.answerCount), 0) FROM SurveyDailyStats s WHERE s.day >= :from AND s.day <= :to")
+    long sumAnswersBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Responses across all surveys and days
+    @Query("SELECT COALESCE(SUM(s.responseCount), 0) FROM SurveyDailyStats s")
+    long sumResponses();
+
+    // Answers across all surveys and days
+    @Query("SELECT COALESCE(SUM(s.answerCount), 0) FROM SurveyDailyStats s")
+    long sumAnswers();
+
+    // Answers per survey
+    @Query("SELECT s.surveyId, SUM(s.answerCount) FROM SurveyDailyStats s GROUP BY s.surveyId")
+    List<Object[]> sumAnswersPerSurvey();
+}
@@ -1,19 +1,115 @@
 package com.training.feedbacktool.repository;
 
+import com.training.feedbacktool.dto.DashboardSurveyRow;
 import com.training.feedbacktool.entity.Survey;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 public interface SurveyRepository extends JpaRepository<Survey, Long> {
+    // Query cache: answered from memory until the surveys table changes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByTitleIgnoreCase(String title);
 
-    @Query("SELECT COUNT(DISTINCT a.user) FROM Answer a WHERE a.question.survey.id = :surveyId AND a.user IS NOT NULL")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    long countByStatus(String status);
+
+    // Survey with its questions in one query (used to compile submission plans);
+    // query-cached, with the survey and questions served from the entity cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT s FROM Survey s LEFT JOIN FETCH s.questions WHERE s.id = :id")
+    Optional<Survey> findByIdWithQuestions(@Param("id") Long id);
+
+    @Query("SELECT s.id FROM Survey s")
+    Page<Long> findAllIds(Pageable pageable);
+
+    // Active surveys with current-version question counts and submission counts
+    // for user dashboards (submission counts come from the daily rollups)
+    @Query("SELECT new com.training.feedbacktool.dto.DashboardSurveyRow(s.id, s.title, s.description, s.createdAt, "
+            + "(SELECT COUNT(q) FROM Question q WHERE q.survey = s AND q.retired = false), "
+            + "(SELECT COALESCE(SUM(d.responseCount), 0) FROM SurveyDailyStats d WHERE d.surveyId = s.id)) "
+            + "FROM Survey s WHERE s.status = 'ACTIVE'")
+    List<DashboardSurveyRow> findActiveDashboardRows();
+
+    // Same rows with submission counts from the responses table, used until the
+    // daily rollups have been backfilled
+    @Query("SELECT new com.training.feedbacktool.dto.DashboardSurveyRow(s.id, s.title, s.description, s.createdAt, "
+            + "(SELECT COUNT(q) FROM Question q WHERE q.survey = s AND q.retired = false), "
+            + "(SELECT COUNT(r) FROM Response r WHERE r.survey = s)) "
+            + "FROM Survey s WHERE s.status = 'ACTIVE'")
+    List<DashboardSurveyRow> findActiveDashboardRowsFromResponses();
+
+    // Most recently created surveys, newest first
+    @Query("SELECT s FROM Survey s ORDER BY s.createdAt DESC, s.id DESC")
+    List<Survey> findRecent(Pageable pageable);
+
+    // Current-version question counts of the given surveys
+    @Query("SELECT q.survey.id, COUNT(q) FROM Question q WHERE q.survey.id IN :surveyIds AND q.retired = false "
+            + "GROUP BY q.survey.id")
+    List<Object[]> countQuestionsBySurveyIds(@Param("surveyIds") Collection<Long> surveyIds);
+
+    @Query("SELECT COUNT(s) FROM Survey s WHERE s.createdAt >= :since")
+    long countCreatedSince(@Param("since") java.time.Instant since);
+
+    @Query("SELECT COUNT(DISTINCT a.user.id) FROM Answer a WHERE a.surveyId = :surveyId AND a.user IS NOT NULL")
     Long countAuthenticatedResponsesBySurveyId(@Param("surveyId") Long surveyId);
 
-    @Query("SELECT COUNT(a) FROM Answer a WHERE a.question.survey.id = :surveyId AND a.user IS NULL")
+    @Query("SELECT COUNT(a) FROM Answer a WHERE a.surveyId = :surveyId AND a.user IS NULL")
     Long countAnonymousResponsesBySurveyId(@Param("surveyId") Long surveyId);
 
-    @Query("SELECT COUNT(q) FROM Question q WHERE q.survey.id = :surveyId")
+    @Query("SELECT COUNT(q) FROM Question q WHERE q.survey.id = :surveyId AND q.retired = false")
     Long countQuestionsBySurveyId(@Param("surveyId") Long surveyId);
-}
\ No newline at end of file
+
+    // Question counts, submission counts and completion for a page of surveys in
+    // one query: answers are grouped per submission first, then per survey. Each
+    // submission is measured against the questions of the version it answered.
+    // Columns: survey id, current questions, submissions, submissions that
+    // answered every required question, mean share of questions answered
+    @Query(value = "WITH vq AS (SELECT q.survey_id, q.survey_version, COUNT(*) AS question_count, "
+            + "SUM(CASE WHEN q.required THEN 1 ELSE 0 END) AS required_count "
+            + "FROM questions q WHERE q.survey_id IN (:surveyIds) GROUP BY q.survey_id, q.survey_version) "
+            + "SELECT s.id, COALESCE(qc.question_count, 0), COUNT(pr.response_id), "
+            + "COALESCE(SUM(CASE WHEN pr.required_answered >= pr.required_count THEN 1 ELSE 0 END), 0), "
+            + "AVG(pr.answered / NULLIF(pr.question_count, 0)) "
+            + "FROM surveys s "
+            + "LEFT JOIN vq qc ON qc.survey_id = s.id AND qc.survey_version = s.current_version "
+            + "LEFT JOIN (SELECT r.id AS response_id, r.survey_id, COUNT(DISTINCT a.question_id) AS answered, "
+            + "COUNT(DISTINCT CASE WHEN q.required THEN a.question_id END) AS required_answered, "
+            + "COALESCE(MAX(v.question_count), 0) AS question_count, "
+            + "COALESCE(MAX(v.required_count), 0) AS required_count "
+            + "FROM responses r LEFT JOIN answers a ON a.response_id = r.id "
+            + "LEFT JOIN questions q ON q.id = a.question_id "
+            + "LEFT JOIN vq v ON v.survey_id = r.survey_id AND v.survey_version = r.survey_version "
+            + "WHERE r.survey_id IN (:surveyIds) GROUP BY r.id, r.survey_id) pr ON pr.survey_id = s.id "
+            + "WHERE s.id IN (:surveyIds) "
+            + "GROUP BY s.id, qc.question_count", nativeQuery = true)
+    List<Object[]> findListStatsBySurveyIds(@Param("surveyIds") Collection<Long> surveyIds);
+
+    // Tombstone a survey: the entity restriction hides it from every JPQL read
+    // at once (the bulk update also evicts cached surveys); children are purged
+    // later in chunks
+    @Modifying
+    @Query("UPDATE Survey s SET s.deletedAt = :deletedAt WHERE s.id = :id")
+    int markDeleted(@Param("id") Long id, @Param("deletedAt") java.time.Instant deletedAt);
+
+    // Tombstoned surveys still waiting for their purge (native: bypasses the
+    // entity restriction)
+    @Query(value = "SELECT id FROM surveys WHERE deleted_at IS NOT NULL ORDER BY deleted_at", nativeQuery = true)
+    List<Long> findDeletedIds();
+
+    // Remove a tombstoned survey's row once its children are gone
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "surveys"))
+    @Modifying
+    @Query(value = "DELETE FROM surveys WHERE id = :id AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeDeleted(@Param("id") Long id);
+}
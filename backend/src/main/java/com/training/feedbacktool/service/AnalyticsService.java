@@ -1,16 +1,22 @@
 package com.training.feedbacktool.service;
 
-import com.training.feedbacktool.entity.Answer;
+import com.training.feedbacktool.dto.RecentAnswerRow;
 import com.training.feedbacktool.entity.Response;
 import com.training.feedbacktool.entity.Survey;
 import com.training.feedbacktool.repository.AnswersRepository;
 import com.training.feedbacktool.repository.ResponsesRepository;
+import com.training.feedbacktool.repository.SurveyDailyStatsRepository;
 import com.training.feedbacktool.repository.SurveyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.DateTimeException;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -19,40 +25,53 @@ import java.util.stream.Collectors;
 @Service
 public class AnalyticsService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
+
     private final AnswersRepository answersRepository;
     private final SurveyRepository surveyRepository;
     private final ResponsesRepository responsesRepository;
+    private final SurveyDailyStatsRepository surveyDailyStatsRepository;
+    private final SurveyStatsService surveyStatsService;
 
     public AnalyticsService(AnswersRepository answersRepository,
             SurveyRepository surveyRepository,
-            ResponsesRepository responsesRepository) {
+            ResponsesRepository responsesRepository,
+            SurveyDailyStatsRepository surveyDailyStatsRepository,
+            SurveyStatsService surveyStatsService) {
         this.answersRepository = answersRepository;
         this.surveyRepository = surveyRepository;
         this.responsesRepository = responsesRepository;
+        this.surveyDailyStatsRepository = surveyDailyStatsRepository;
+        this.surveyStatsService = surveyStatsService;
     }
 
     /**
-     * Get response trends over time
+     * Get response trends over time, bucketed into days of the given time zone
+     * (server default when null)
      */
-    public List<Map<String, Object>> getResponseTrends(int days) {
+    public List<Map<String, Object>> getResponseTrends(int days, String timeZone) {
         List<Map<String, Object>> trends = new ArrayList<>();
-
-        // Get all answers from the last 'days' days
-        Instant startDate = Instant.now().minus(days, ChronoUnit.DAYS);
-        List<Answer> recentAnswers = answersRepository.findAll().stream()
-                .filter(answer -> answer.getCreatedAt().isAfter(startDate))
-                .collect(Collectors.toList());
-
-        // Group answers by date
-        Map<LocalDate, Long> answersByDate = recentAnswers.stream()
-                .collect(Collectors.groupingBy(
-                        answer -> answer.getCreatedAt().atZone(ZoneId.systemDefault()).toLocalDate(),
-                        Collectors.counting()));
+        ZoneId zone = resolveZone(timeZone);
+
+        // Count answers per day from the start of the first day in the window. The
+        // daily rollup is kept in UTC days, so other zones (and a rollup not yet
+        // backfilled) aggregate the raw rows.
+        LocalDate today = LocalDate.now(zone);
+        Map<LocalDate, Long> answersByDate;
+        if (useRollup(zone)) {
+            answersByDate = new HashMap<>();
+            for (Object[] row : surveyDailyStatsRepository.sumAnswersPerDay(today.minusDays(days - 1L), today)) {
+                answersByDate.put((LocalDate) row[0], ((Number) row[1]).longValue());
+            }
+        } else {
+            Instant startDate = today.minusDays(days - 1L).atStartOfDay(zone).toInstant();
+            answersByDate = countAnswersByDay(startDate, Instant.now(), zone);
+        }
 
         // Create trend data for each day
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d");
         for (int i = days - 1; i >= 0; i--) {
-            LocalDate date = LocalDate.now().minusDays(i);
+            LocalDate date = today.minusDays(i);
             Long responseCount = answersByDate.getOrDefault(date, 0L);
 
             Map<String, Object> dayData = new HashMap<>();
@@ -66,6 +85,44 @@ public class AnalyticsService {
         return trends;
     }
 
+    /**
+     * Count answers per local day in [start, end) using the database-side
+     * quarter-hour aggregate
+     */
+    private Map<LocalDate, Long> countAnswersByDay(Instant start, Instant end, ZoneId zone) {
+        Map<LocalDate, Long> answersByDate = new HashMap<>();
+        for (Object[] row : answersRepository.countCreatedPerQuarterHour(start, end)) {
+            long bucket = ((Number) row[0]).longValue();
+            long count = ((Number) row[1]).longValue();
+            LocalDate date = Instant.ofEpochSecond(bucket * 900).atZone(zone).toLocalDate();
+            answersByDate.merge(date, count, Long::sum);
+        }
+        return answersByDate;
+    }
+
+    private long sumDays(Map<LocalDate, Long> answersByDate, LocalDate from, LocalDate to) {
+        long total = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            total += answersByDate.getOrDefault(day, 0L);
+        }
+        return total;
+    }
+
+    private boolean useRollup(ZoneId zone) {
+        return zone.normalized().equals(ZoneOffset.UTC) && surveyStatsService.isRollupReady();
+    }
+
+    private ZoneId resolveZone(String timeZone) {
+        if (timeZone == null || timeZone.isBlank()) {
+            return ZoneId.systemDefault();
+        }
+        try {
+            return ZoneId.of(timeZone.trim());
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unknown time zone: " + timeZone);
+        }
+    }
+
     /**
      * Get recent activity
      */
@@ -73,17 +130,10 @@ public class AnalyticsService {
         List<Map<String, Object>> activities = new ArrayList<>();
 
         try {
-            // Get recent surveys
-            List<Survey> recentSurveys = surveyRepository.findAll().stream()
-                    .sorted((s1, s2) -> s2.getCreatedAt().compareTo(s1.getCreatedAt()))
-                    .limit(limit / 2)
-                    .collect(Collectors.toList());
-
-            // Get recent answers/responses
-            List<Answer> recentAnswers = answersRepository.findAll().stream()
-                    .sorted((a1, a2) -> a2.getCreatedAt().compareTo(a1.getCreatedAt()))
-                    .limit(limit / 2)
-                    .collect(Collectors.toList());
+            // Get recent surveys and recent answers of surveys that are not deleted
+            List<Survey> recentSurveys = surveyRepository.findRecent(PageRequest.of(0, Math.max(1, limit / 2)));
+            List<RecentAnswerRow> recentAnswers = answersRepository
+                    .findRecentOnLiveSurveys(PageRequest.of(0, Math.max(1, limit / 2)));
 
             // Add survey activities
             for (Survey survey : recentSurveys) {
@@ -98,24 +148,16 @@ public class AnalyticsService {
             }
 
             // Add response activities
-            Map<Long, Long> responseCounts = new HashMap<>();
-            for (Answer answer : recentAnswers) {
-                Long surveyId = answer.getQuestion().getSurvey().getId();
-                responseCounts.merge(surveyId, 1L, Long::sum);
-            }
-
-            for (Answer answer : recentAnswers) {
+            for (RecentAnswerRow answer : recentAnswers) {
                 if (activities.size() >= limit)
                     break;
 
-                String surveyTitle = answer.getQuestion().getSurvey().getTitle();
-
                 Map<String, Object> activity = new HashMap<>();
-                activity.put("id", answer.getId());
+                activity.put("id", answer.id());
                 activity.put("action", "New response");
-                activity.put("survey", surveyTitle);
-                activity.put("time", formatTimeAgo(answer.getCreatedAt()));
-                activity.put("timestamp", answer.getCreatedAt());
+                activity.put("survey", answer.surveyTitle());
+                activity.put("time", formatTimeAgo(answer.createdAt()));
+                activity.put("timestamp", answer.createdAt());
                 activity.put("type", "response");
                 activities.add(activity);
             }
@@ -138,36 +180,39 @@ public class AnalyticsService {
     /**
      * Get dashboard overview statistics
      */
-    public Map<String, Object> getDashboardOverview() {
+    public Map<String, Object> getDashboardOverview(String timeZone) {
         Map<String, Object> overview = new HashMap<>();
+        ZoneId zone = resolveZone(timeZone);
 
         try {
             // Basic counts
             long totalSurveys = surveyRepository.count();
-            long activeSurveys = surveyRepository.findAll().stream()
-                    .filter(s -> "ACTIVE".equals(s.getStatus()))
-                    .count();
-            long totalAnswers = answersRepository.count();
-
-            // Response trends
-            Instant oneWeekAgo = Instant.now().minus(7, ChronoUnit.DAYS);
-            Instant twoWeeksAgo = Instant.now().minus(14, ChronoUnit.DAYS);
-
-            long responsesThisWeek = answersRepository.findAll().stream()
-                    .filter(a -> a.getCreatedAt().isAfter(oneWeekAgo))
-                    .count();
-
-            long responsesLastWeek = answersRepository.findAll().stream()
-                    .filter(a -> a.getCreatedAt().isAfter(twoWeeksAgo) && a.getCreatedAt().isBefore(oneWeekAgo))
-                    .count();
+            long activeSurveys = surveyRepository.countByStatus("ACTIVE");
+            long totalAnswers = surveyStatsService.isRollupReady()
+                    ? surveyDailyStatsRepository.sumAnswers()
+                    : answersRepository.countOnLiveSurveys();
+
+            // Response trends (last 7 days of the zone including today vs. the 7
+            // before). The rollup holds UTC days, so other zones aggregate raw rows.
+            LocalDate today = LocalDate.now(zone);
+            long responsesThisWeek;
+            long responsesLastWeek;
+            if (useRollup(zone)) {
+                responsesThisWeek = surveyDailyStatsRepository.sumAnswersBetween(today.minusDays(6), today);
+                responsesLastWeek = surveyDailyStatsRepository.sumAnswersBetween(
+                        today.minusDays(13), today.minusDays(7));
+            } else {
+                Map<LocalDate, Long> answersByDate = countAnswersByDay(
+                        today.minusDays(13).atStartOfDay(zone).toInstant(), Instant.now(), zone);
+                responsesThisWeek = sumDays(answersByDate, today.minusDays(6), today);
+                responsesLastWeek = sumDays(answersByDate, today.minusDays(13), today.minusDays(7));
+            }
 
             // New surveys this month
-            LocalDate firstOfMonth = LocalDate.now().withDayOfMonth(1);
-            Instant startOfMonth = firstOfMonth.atStartOfDay(ZoneId.systemDefault()).toInstant();
+            LocalDate firstOfMonth = today.withDayOfMonth(1);
+            Instant startOfMonth = firstOfMonth.atStartOfDay(zone).toInstant();
 
-            long newSurveysThisMonth = surveyRepository.findAll().stream()
-                    .filter(s -> s.getCreatedAt().isAfter(startOfMonth))
-                    .count();
+            long newSurveysThisMonth = surveyRepository.countCreatedSince(startOfMonth);
 
             overview.put("totalSurveys", totalSurveys);
             overview.put("activeSurveys", activeSurveys);
@@ -198,11 +243,21 @@ public class AnalyticsService {
         try {
             List<Survey> surveys = surveyRepository.findAll();
 
+            // Answer totals per survey from the daily rollup, or the answers table
+            // until the rollup has been backfilled
+            Map<Long, Long> answersBySurvey = new HashMap<>();
+            List<Object[]> totals = surveyStatsService.isRollupReady()
+                    ? surveyDailyStatsRepository.sumAnswersPerSurvey()
+                    : answersRepository.countPerLiveSurvey();
+            for (Object[] row : totals) {
+                answersBySurvey.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+            }
+
             for (Survey survey : surveys) {
                 Map<String, Object> metrics = new HashMap<>();
 
                 // Count responses for this survey
-                long responseCount = answersRepository.findBySurveyId(survey.getId()).size();
+                long responseCount = answersBySurvey.getOrDefault(survey.getId(), 0L);
 
                 // Calculate basic metrics
                 metrics.put("surveyId", survey.getId());
@@ -233,21 +288,23 @@ public class AnalyticsService {
      * Get recent responses with detailed information for admin dashboard
      */
     public List<Map<String, Object>> getRecentResponses(int limit) {
-        System.out.println("Starting getRecentResponses with limit: " + limit);
-
         try {
-            // Get recent responses from the database
-            List<Response> recentResponses = responsesRepository.findAll().stream()
-                    .sorted((r1, r2) -> r2.getCreatedAt().compareTo(r1.getCreatedAt()))
-                    .limit(limit)
-                    .collect(Collectors.toList());
-
-            System.out.println("Found " + recentResponses.size() + " responses in database");
+            // Most recent submissions of surveys that are not deleted, with their
+            // survey and user fetched in the same query
+            List<Response> recentResponses = responsesRepository.findRecentOnLiveSurveys(
+                    PageRequest.of(0, Math.max(1, limit)));
 
             if (recentResponses.isEmpty()) {
                 return createFallbackRecentResponses();
             }
 
+            // Answer counts per submission and question counts per survey, one
+            // query each
+            Map<Long, Long> answersByResponse = toCountMap(answersRepository.countByResponseIds(
+                    recentResponses.stream().map(Response::getId).collect(Collectors.toSet())));
+            Map<Long, Long> questionsBySurvey = toCountMap(surveyRepository.countQuestionsBySurveyIds(
+                    recentResponses.stream().map(r -> r.getSurvey().getId()).collect(Collectors.toSet())));
+
             List<Map<String, Object>> result = new ArrayList<>();
 
             for (Response response : recentResponses) {
@@ -268,18 +325,11 @@ public class AnalyticsService {
                     responseData.put("isAnonymous", true);
                 }
 
-                // Get answers for this response to calculate completion
-                List<Answer> answers = answersRepository.findBySurveyId(response.getSurvey().getId());
-
-                // Filter answers by this response (if there's a way to link them)
-                // For now, we'll estimate based on survey questions
-                Survey survey = response.getSurvey();
-                long totalQuestions = survey.getQuestions() != null ? survey.getQuestions().size() : 0;
-
-                // Count answers from the user for this survey
-                // This is a simplified calculation - you might need to adjust based on your
-                // data model
-                long answeredQuestions = answers.size() > 0 ? Math.min(answers.size(), totalQuestions) : 0;
+                // Completion: the submission's answers against the survey's
+                // current questions
+                long totalQuestions = questionsBySurvey.getOrDefault(response.getSurvey().getId(), 0L);
+                long answeredQuestions = Math.min(answersByResponse.getOrDefault(response.getId(), 0L),
+                        totalQuestions);
 
                 double completionPercentage = totalQuestions > 0 ? (double) answeredQuestions / totalQuestions * 100
                         : 0;
@@ -299,12 +349,19 @@ public class AnalyticsService {
             return result;
 
         } catch (Exception e) {
-            System.err.println("Error in getRecentResponses: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Failed to load recent responses", e);
             return createFallbackRecentResponses();
         }
     }
 
+    private Map<Long, Long> toCountMap(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
     private String formatDate(Instant instant) {
         return instant.atZone(ZoneId.systemDefault())
                 .format(DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' HH:mm"));
@@ -380,7 +437,7 @@ public class AnalyticsService {
                     .average()
                     .orElse(0.0);
         } catch (Exception e) {
-            System.err.println("Error calculating average completion time: " + e.getMessage());
+            logger.warn("Failed to calculate average completion time for survey {}: {}", surveyId, e.getMessage());
             return null;
         }
     }
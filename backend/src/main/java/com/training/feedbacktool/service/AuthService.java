@@ -67,11 +67,12 @@ public class AuthService {
      */
     public void logout(String token) {
         try {
-            // Extract expiration date from token
+            // Extract token id and expiration date from token
+            String tokenId = jwtUtil.extractTokenId(token);
             var expirationDate = jwtUtil.extractExpiration(token);
 
             // Add token to blacklist
-            tokenBlacklistService.blacklistToken(token, expirationDate);
+            tokenBlacklistService.blacklistToken(tokenId, expirationDate);
         } catch (Exception e) {
             // Token might be invalid, but we still want to "logout" successfully
             // to prevent edge cases where frontend thinks user is logged out but backend
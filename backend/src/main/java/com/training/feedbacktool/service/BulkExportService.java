@@ -0,0 +1,265 @@
+package com.training.feedbacktool.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.feedbacktool.repository.SurveyRepository;
+import com.training.feedbacktool.service.ExportService.ExportOptions;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exports several surveys into one ZIP. Each survey's CSV is generated on a
+ * bounded worker pool into its own temp file, and files are copied into the
+ * archive in the order they finish, so memory holds no CSV and the workers
+ * stay busy while the archive is written. A manifest.json entry with
+ * per-survey timing closes the archive. Every worker holds a pooled database
+ * connection while it streams, so the pool is capped at half the connection
+ * pool to leave room for request traffic.
+ */
+@Service
+public class BulkExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkExportService.class);
+
+    private final ExportService exportService;
+    private final SurveyRepository surveyRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.export.zip-parallelism:2}")
+    private int parallelism;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    @Value("${app.export.zip-max-surveys:200}")
+    private int maxSurveys;
+
+    private ExecutorService executor;
+
+    public BulkExportService(ExportService exportService, SurveyRepository surveyRepository,
+            ObjectMapper objectMapper) {
+        this.exportService = exportService;
+        this.surveyRepository = surveyRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void start() {
+        int maxThreads = Math.max(1, connectionPoolSize / 2);
+        int threads = Math.min(Math.max(1, parallelism), maxThreads);
+        if (threads < parallelism) {
+            logger.warn("app.export.zip-parallelism={} capped at {} (half of the {} pooled connections)",
+                    parallelism, threads, connectionPoolSize);
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "zip-export-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Check the requested ids before a streamed archive commits its response
+     *
+     * @return the distinct ids in request order
+     * @throws IllegalArgumentException if the list is empty, too long or names
+     *                                  unknown surveys
+     */
+    public List<Long> validateSurveyIds(List<Long> surveyIds) {
+        if (surveyIds == null || surveyIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one survey ID is required");
+        }
+        Set<Long> distinct = new LinkedHashSet<>(surveyIds);
+        if (distinct.size() > maxSurveys) {
+            throw new IllegalArgumentException("At most " + maxSurveys + " surveys can be exported at once");
+        }
+        Set<Long> missing = new LinkedHashSet<>(distinct);
+        surveyRepository.findAllById(distinct).forEach(survey -> missing.remove(survey.getId()));
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Surveys not found: " + missing);
+        }
+        return new ArrayList<>(distinct);
+    }
+
+    /**
+     * Write a ZIP with one CSV per survey plus manifest.json to {@code out}
+     */
+    public void writeSurveysAsZip(List<Long> surveyIds, ExportOptions options, OutputStream out)
+            throws IOException {
+        Instant started = Instant.now();
+        CompletionService<SurveyExport> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<SurveyExport>> futures = new ArrayList<>(surveyIds.size());
+        TempFiles tempFiles = new TempFiles();
+        for (Long surveyId : surveyIds) {
+            futures.add(completionService.submit(() -> exportToTempFile(surveyId, options, tempFiles)));
+        }
+
+        List<Map<String, Object>> manifestEntries = new ArrayList<>();
+        ZipOutputStream zip = new ZipOutputStream(out);
+        try {
+            for (int i = 0; i < surveyIds.size(); i++) {
+                SurveyExport export = takeNext(completionService);
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("surveyId", export.surveyId());
+                try {
+                    if (export.error() != null) {
+                        entry.put("status", "FAILED");
+                        entry.put("error", export.error());
+                    } else {
+                        String entryName = "survey_" + export.surveyId() + ".csv";
+                        zip.putNextEntry(new ZipEntry(entryName));
+                        Files.copy(export.file(), zip);
+                        zip.closeEntry();
+                        entry.put("status", "COMPLETED");
+                        entry.put("entry", entryName);
+                        entry.put("bytes", export.bytes());
+                    }
+                    entry.put("generationMillis", export.generationMillis());
+                    entry.put("queuedMillis", export.queuedMillis());
+                } finally {
+                    tempFiles.release(export.file());
+                }
+                manifestEntries.add(entry);
+            }
+
+            Map<String, Object> manifest = new LinkedHashMap<>();
+            manifest.put("generatedAt", Instant.now().toString());
+            manifest.put("totalMillis", Instant.now().toEpochMilli() - started.toEpochMilli());
+            manifest.put("surveys", manifestEntries);
+            zip.putNextEntry(new ZipEntry("manifest.json"));
+            zip.write(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(manifest));
+            zip.closeEntry();
+            zip.finish();
+            zip.flush();
+        } catch (IOException | RuntimeException e) {
+            // Client went away or the archive failed: stop remaining work and drop
+            // every temp file, including those of tasks that finish after this
+            tempFiles.abort();
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+    }
+
+    private SurveyExport exportToTempFile(Long surveyId, ExportOptions options, TempFiles tempFiles) {
+        long submitted = System.nanoTime();
+        Path file = null;
+        try {
+            file = tempFiles.create("survey-export-" + surveyId + "-", ".csv");
+            long begin = System.nanoTime();
+            try (OutputStream fileOut = Files.newOutputStream(file)) {
+                exportService.writeSurveyAnalysisAsCSV(surveyId, options, ExportEncoding.IDENTITY, fileOut);
+            }
+            long end = System.nanoTime();
+            SurveyExport export = new SurveyExport(surveyId, file, Files.size(file), (end - begin) / 1_000_000,
+                    (begin - submitted) / 1_000_000, null);
+            tempFiles.deleteIfAborted(file);
+            return export;
+        } catch (Exception e) {
+            if (!tempFiles.isAborted()) {
+                logger.error("Bulk export of survey {} failed", surveyId, e);
+            }
+            tempFiles.release(file);
+            return new SurveyExport(surveyId, null, 0, 0, 0, e.getMessage() != null ? e.getMessage()
+                    : e.getClass().getSimpleName());
+        }
+    }
+
+    private static SurveyExport takeNext(CompletionService<SurveyExport> completionService) throws IOException {
+        try {
+            return completionService.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for survey exports", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Survey export failed", e.getCause());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete temp export file {}", file, e);
+        }
+    }
+
+    /**
+     * Temp files of one archive. A file is registered before it is written and
+     * released once copied; after an abort every registered file is deleted, and
+     * tasks finishing later delete their own file.
+     */
+    private static final class TempFiles {
+
+        private final Set<Path> files = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean aborted = new AtomicBoolean();
+
+        Path create(String prefix, String suffix) throws IOException {
+            Path file = Files.createTempFile(prefix, suffix);
+            files.add(file);
+            return file;
+        }
+
+        void release(Path file) {
+            if (file != null) {
+                files.remove(file);
+                deleteQuietly(file);
+            }
+        }
+
+        void deleteIfAborted(Path file) {
+            if (aborted.get()) {
+                release(file);
+            }
+        }
+
+        boolean isAborted() {
+            return aborted.get();
+        }
+
+        void abort() {
+            aborted.set(true);
+            for (Path file : files) {
+                release(file);
+            }
+        }
+    }
+
+    private record SurveyExport(Long surveyId, Path file, long bytes, long generationMillis, long queuedMillis,
+            String error) {
+    }
+}
@@ -1,6 +1,5 @@
 package com.training.feedbacktool.service;
 
-import com.training.feedbacktool.entity.Survey;
 import com.training.feedbacktool.entity.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,7 +35,8 @@ public class EmailService {
     }
 
     @Async
-    public void sendSurveyResponseNotification(List<User> adminUsers, Survey survey, String respondentInfo) {
+    public void sendSurveyResponseNotification(List<User> adminUsers, Long surveyId, String surveyTitle,
+            String surveyDescription, String respondentInfo) {
         if (!emailEnabled) {
             logger.info("Email notifications are disabled");
             return;
@@ -48,8 +48,8 @@ public class EmailService {
         }
 
         try {
-            String subject = "New Survey Response - " + survey.getTitle();
-            String body = buildNotificationEmailBody(survey, respondentInfo);
+            String subject = "New Survey Response - " + surveyTitle;
+            String body = buildNotificationEmailBody(surveyId, surveyTitle, surveyDescription, respondentInfo);
 
             for (User admin : adminUsers) {
                 try {
@@ -122,7 +122,8 @@ public class EmailService {
                 """, userFirstName, resetUrl);
     }
 
-    private String buildNotificationEmailBody(Survey survey, String respondentInfo) {
+    private String buildNotificationEmailBody(Long surveyId, String surveyTitle, String surveyDescription,
+            String respondentInfo) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss z")
                 .withZone(ZoneId.systemDefault());
 
@@ -143,9 +144,9 @@ public class EmailService {
                 Best regards,
                 Feedback Tool System
                 """,
-                survey.getTitle(),
-                survey.getId(),
-                survey.getDescription() != null ? survey.getDescription() : "No description provided",
+                surveyTitle,
+                surveyId,
+                surveyDescription != null ? surveyDescription : "No description provided",
                 formatter.format(Instant.now()),
                 respondentInfo);
     }
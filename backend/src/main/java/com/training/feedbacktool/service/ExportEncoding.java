@@ -0,0 +1,118 @@
+package com.training.feedbacktool.service;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Transfer/file encoding applied to an export while it is streamed
+ */
+public enum ExportEncoding {
+    IDENTITY("identity", ""),
+    GZIP("gzip", ".gz");
+
+    private final String token;
+    private final String fileSuffix;
+
+    ExportEncoding(String token, String fileSuffix) {
+        this.token = token;
+        this.fileSuffix = fileSuffix;
+    }
+
+    /**
+     * Parse an explicit compression parameter ("gzip" or "none")
+     */
+    public static ExportEncoding fromParameter(String value) {
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip", "gz" -> GZIP;
+            case "none", "identity" -> IDENTITY;
+            default -> throw new IllegalArgumentException("Unsupported compression: " + value);
+        };
+    }
+
+    /**
+     * Pick an encoding from an Accept-Encoding header: gzip when the client
+     * accepts it with a non-zero q value. An explicit gzip entry takes
+     * precedence over * (so "gzip;q=0, *" refuses gzip).
+     */
+    public static ExportEncoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return IDENTITY;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim();
+            if (coding.equalsIgnoreCase("gzip")) {
+                gzipQuality = quality(tokens);
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality(tokens);
+            }
+        }
+        Double accepted = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return accepted != null && accepted > 0 ? GZIP : IDENTITY;
+    }
+
+    // q value of one Accept-Encoding entry (1 when absent, 0 when malformed)
+    private static double quality(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String param = tokens[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Wrap a stream so bytes written to the result are encoded into {@code out}.
+     * Call {@link #finish(OutputStream)} on the result when done; {@code out}
+     * itself is left open.
+     */
+    public OutputStream wrap(OutputStream out) throws IOException {
+        if (this != GZIP) {
+            return out;
+        }
+        // Closing the gzip stream writes the trailer and frees the deflater, but
+        // must not close the caller's stream
+        OutputStream keepOpen = new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                out.flush();
+            }
+        };
+        return new GZIPOutputStream(keepOpen, 8192);
+    }
+
+    /**
+     * Write any trailing encoder state (the gzip trailer) and flush, leaving the
+     * underlying stream open
+     */
+    public void finish(OutputStream wrapped) throws IOException {
+        if (wrapped instanceof GZIPOutputStream) {
+            wrapped.close();
+        } else {
+            wrapped.flush();
+        }
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getFileSuffix() {
+        return fileSuffix;
+    }
+}
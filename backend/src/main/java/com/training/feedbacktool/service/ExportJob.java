@@ -0,0 +1,114 @@
+package com.training.feedbacktool.service;
+
+import com.training.feedbacktool.dto.ExportJobStatus;
+import com.training.feedbacktool.util.CountingOutputStream;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * State of one asynchronous export. Written by the worker running it and read
+ * by status/download requests.
+ */
+class ExportJob {
+
+    enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final String artifactKey;
+    private final Long surveyId;
+    private final String requestedBy;
+    private final ExportEncoding encoding;
+    private final String fileName;
+    private final Path file;
+    private final Instant submittedAt = Instant.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile CountingOutputStream output;
+    private volatile long size;
+    private volatile String error;
+    private volatile Instant startedAt;
+    private volatile Instant completedAt;
+
+    ExportJob(String id, String artifactKey, Long surveyId, String requestedBy, ExportEncoding encoding,
+            String fileName, Path file) {
+        this.id = id;
+        this.artifactKey = artifactKey;
+        this.surveyId = surveyId;
+        this.requestedBy = requestedBy;
+        this.encoding = encoding;
+        this.fileName = fileName;
+        this.file = file;
+    }
+
+    void markRunning(CountingOutputStream output) {
+        this.output = output;
+        this.startedAt = Instant.now();
+        this.status = Status.RUNNING;
+    }
+
+    void markCompleted(long size) {
+        this.size = size;
+        this.output = null;
+        this.completedAt = Instant.now();
+        this.status = Status.COMPLETED;
+    }
+
+    void markFailed(String error) {
+        this.error = error;
+        this.output = null;
+        this.completedAt = Instant.now();
+        this.status = Status.FAILED;
+    }
+
+    boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    boolean isExpired(Instant now, Duration ttl) {
+        return isFinished() && completedAt.plus(ttl).isBefore(now);
+    }
+
+    ExportJobStatus toStatus(Duration ttl) {
+        CountingOutputStream running = output;
+        long bytesWritten = running != null ? running.getCount() : size;
+        return new ExportJobStatus(id, surveyId, status.name(), bytesWritten,
+                status == Status.COMPLETED ? fileName : null, error,
+                submittedAt, startedAt, completedAt, completedAt != null ? completedAt.plus(ttl) : null);
+    }
+
+    String getId() {
+        return id;
+    }
+
+    String getArtifactKey() {
+        return artifactKey;
+    }
+
+    Long getSurveyId() {
+        return surveyId;
+    }
+
+    String getRequestedBy() {
+        return requestedBy;
+    }
+
+    ExportEncoding getEncoding() {
+        return encoding;
+    }
+
+    String getFileName() {
+        return fileName;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    Status getStatus() {
+        return status;
+    }
+}
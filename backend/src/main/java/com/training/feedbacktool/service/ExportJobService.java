@@ -0,0 +1,218 @@
+package com.training.feedbacktool.service;
+
+import com.training.feedbacktool.dto.ExportJobStatus;
+import com.training.feedbacktool.service.ExportService.ExportOptions;
+import com.training.feedbacktool.util.CountingOutputStream;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs survey exports in the background and keeps the finished files in a
+ * local spool directory for a limited time. Jobs run on a bounded pool with a
+ * per-user limit, and a request for an export whose survey data has not
+ * changed reuses the existing job and file. Job state is in memory, so spooled
+ * files are discarded on restart.
+ */
+@Service
+public class ExportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobService.class);
+
+    private final ExportService exportService;
+
+    @Value("${app.export.spool-dir:${java.io.tmpdir}/feedbacktool-exports}")
+    private String spoolDirPath;
+
+    @Value("${app.export.worker-threads:2}")
+    private int workerThreads;
+
+    @Value("${app.export.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${app.export.max-jobs-per-user:2}")
+    private int maxJobsPerUser;
+
+    @Value("${app.export.artifact-ttl-minutes:60}")
+    private long artifactTtlMinutes;
+
+    private Path spoolDir;
+    private ThreadPoolExecutor executor;
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    // Artifact key (survey, options, data version) -> job id
+    private final Map<String, String> jobIdsByArtifactKey = new ConcurrentHashMap<>();
+    // Unfinished jobs per requesting user
+    private final Map<String, AtomicInteger> activeJobsByUser = new ConcurrentHashMap<>();
+
+    public ExportJobService(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        spoolDir = Paths.get(spoolDirPath);
+        Files.createDirectories(spoolDir);
+
+        // Files from a previous run have no job anymore
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(spoolDir, "export-*")) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "export-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        logger.info("Export jobs enabled (spool {}, {} workers, {} per user)", spoolDir, workerThreads,
+                maxJobsPerUser);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Submit a CSV export job, or return the existing job for the same survey,
+     * options and survey data
+     *
+     * @throws IllegalArgumentException if the survey does not exist
+     * @throws IllegalStateException    if the user or the queue is at capacity
+     */
+    public ExportJobStatus submitCsvExport(Long surveyId, ExportOptions options, ExportEncoding encoding,
+            String requestedBy) {
+        exportService.ensureSurveyExists(surveyId);
+        String artifactKey = "csv:" + encoding.getToken() + ":" + surveyId + ":" + options.includeQuestionAnalysis() + ":"
+                + options.includeRespondentData() + ":" + options.includeRawResponses() + ":"
+                + exportService.dataVersion(surveyId);
+
+        synchronized (this) {
+            String existingId = jobIdsByArtifactKey.get(artifactKey);
+            ExportJob existing = existingId != null ? jobs.get(existingId) : null;
+            if (existing != null && existing.getStatus() != ExportJob.Status.FAILED) {
+                return existing.toStatus(ttl());
+            }
+
+            AtomicInteger active = activeJobsByUser.computeIfAbsent(requestedBy, user -> new AtomicInteger());
+            if (active.get() >= maxJobsPerUser) {
+                throw new IllegalStateException("You already have " + maxJobsPerUser + " exports in progress");
+            }
+
+            String jobId = UUID.randomUUID().toString();
+            String suffix = ".csv" + encoding.getFileSuffix();
+            ExportJob job = new ExportJob(jobId, artifactKey, surveyId, requestedBy, encoding,
+                    "survey_analysis_" + surveyId + suffix, spoolDir.resolve("export-" + jobId + suffix));
+            try {
+                executor.execute(() -> run(job, options));
+            } catch (RejectedExecutionException e) {
+                throw new IllegalStateException("Too many exports queued, please retry shortly");
+            }
+            active.incrementAndGet();
+            jobs.put(jobId, job);
+            jobIdsByArtifactKey.put(artifactKey, jobId);
+            return job.toStatus(ttl());
+        }
+    }
+
+    public Optional<ExportJobStatus> getStatus(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(job -> job.toStatus(ttl()));
+    }
+
+    /**
+     * The finished file of a job
+     *
+     * @throws IllegalArgumentException if the job is unknown or expired
+     * @throws IllegalStateException    if the job has not completed
+     */
+    public ExportArtifact getArtifact(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Export job not found: " + jobId);
+        }
+        if (job.getStatus() != ExportJob.Status.COMPLETED) {
+            throw new IllegalStateException("Export job " + jobId + " is " + job.getStatus());
+        }
+        return new ExportArtifact(job.getId(), job.getFile(), job.getFileName(), job.getEncoding());
+    }
+
+    private void run(ExportJob job, ExportOptions options) {
+        Path partial = job.getFile().resolveSibling(job.getFile().getFileName() + ".part");
+        try (CountingOutputStream out = new CountingOutputStream(Files.newOutputStream(partial))) {
+            job.markRunning(out);
+            exportService.writeSurveyAnalysisAsCSV(job.getSurveyId(), options, job.getEncoding(), out);
+            out.flush();
+            out.close();
+            Files.move(partial, job.getFile(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.markCompleted(Files.size(job.getFile()));
+            logger.info("Export job {} for survey {} completed ({} bytes)", job.getId(), job.getSurveyId(),
+                    Files.size(job.getFile()));
+        } catch (Exception e) {
+            logger.error("Export job {} for survey {} failed", job.getId(), job.getSurveyId(), e);
+            job.markFailed(e.getMessage());
+            deleteQuietly(partial);
+        } finally {
+            activeJobsByUser.get(job.getRequestedBy()).decrementAndGet();
+        }
+    }
+
+    /**
+     * Drop finished jobs and their files once they are past the TTL
+     */
+    @Scheduled(fixedRate = 300000) // 5 minutes in milliseconds
+    public void cleanupExpiredArtifacts() {
+        Instant now = Instant.now();
+        Duration ttl = ttl();
+        for (ExportJob job : jobs.values()) {
+            if (job.isExpired(now, ttl)) {
+                jobs.remove(job.getId());
+                jobIdsByArtifactKey.remove(job.getArtifactKey(), job.getId());
+                deleteQuietly(job.getFile());
+                logger.debug("Export job {} expired", job.getId());
+            }
+        }
+    }
+
+    private Duration ttl() {
+        return Duration.ofMinutes(artifactTtlMinutes);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete export file {}", path, e);
+        }
+    }
+
+    /**
+     * A completed export file
+     */
+    public record ExportArtifact(String jobId, Path file, String fileName, ExportEncoding encoding) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.training.feedbacktool.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Micrometer metrics for exports: size before and after encoding, the
+ * compression ratio and the time taken, tagged by format and encoding
+ */
+@Component
+public class ExportMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public ExportMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(String format, ExportEncoding encoding, long rawBytes, long encodedBytes, Duration elapsed) {
+        String[] tags = { "format", format, "encoding", encoding.getToken() };
+        DistributionSummary.builder("exports.bytes.raw").baseUnit("bytes").tags(tags)
+                .register(meterRegistry).record(rawBytes);
+        DistributionSummary.builder("exports.bytes.encoded").baseUnit("bytes").tags(tags)
+                .register(meterRegistry).record(encodedBytes);
+        if (encodedBytes > 0) {
+            DistributionSummary.builder("exports.compression.ratio").tags(tags)
+                    .register(meterRegistry).record((double) rawBytes / encodedBytes);
+        }
+        Timer.builder("exports.duration").tags(tags)
+                .register(meterRegistry).record(elapsed);
+    }
+}
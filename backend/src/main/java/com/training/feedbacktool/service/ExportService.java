@@ -1,34 +1,115 @@
 package com.training.feedbacktool.service;
 
-import com.training.feedbacktool.dto.SurveyResultsResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.feedbacktool.dto.ExportAnswerRow;
+import com.training.feedbacktool.dto.ExportRespondentRow;
 import com.training.feedbacktool.dto.SurveyResultsResponse.QuestionResultDTO;
 import com.training.feedbacktool.dto.SurveyResultsResponse.QuestionAnalyticsDTO;
-import com.training.feedbacktool.dto.SurveyResultsResponse.RespondentDTO;
-import com.training.feedbacktool.dto.SurveyResultsResponse.ResponseDetailDTO;
+import com.training.feedbacktool.entity.Question;
+import com.training.feedbacktool.entity.Survey;
+import com.training.feedbacktool.repository.AnswersRepository;
+import com.training.feedbacktool.repository.ResponsesRepository;
+import com.training.feedbacktool.repository.SurveyRepository;
+import com.training.feedbacktool.util.CountingOutputStream;
+import com.training.feedbacktool.util.CsvWriter;
+import com.training.feedbacktool.util.XlsxStreamWriter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 public class ExportService {
 
-    private final SurveyService surveyService;
+    private final SurveyRepository surveyRepository;
+    private final ResponsesRepository responsesRepository;
+    private final AnswersRepository answersRepository;
+    private final ExportMetrics exportMetrics;
+    private final SurveyPlanCache surveyPlanCache;
+    private final JsonFactory jsonFactory;
+    @Value("${app.export.watermark-grace-seconds:300}")
+    private long watermarkGraceSeconds;
+
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-    public ExportService(SurveyService surveyService) {
-        this.surveyService = surveyService;
+    public ExportService(SurveyRepository surveyRepository, ResponsesRepository responsesRepository,
+            AnswersRepository answersRepository, ExportMetrics exportMetrics, SurveyPlanCache surveyPlanCache,
+            ObjectMapper objectMapper) {
+        this.surveyRepository = surveyRepository;
+        this.responsesRepository = responsesRepository;
+        this.answersRepository = answersRepository;
+        this.exportMetrics = exportMetrics;
+        this.surveyPlanCache = surveyPlanCache;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Check that a survey exists before a streamed export commits its response
+     */
+    public void ensureSurveyExists(Long surveyId) {
+        if (surveyId == null || !surveyRepository.existsById(surveyId)) {
+            throw new IllegalArgumentException("Survey results not found for ID: " + surveyId);
+        }
     }
 
     /**
-     * Export survey analysis as CSV
+     * Version of a survey's exportable data: changes when the survey is edited
+     * or receives a submission
      */
-    public byte[] exportSurveyAnalysisAsCSV(Long surveyId, ExportOptions options) throws IOException {
+    @Transactional(readOnly = true)
+    public String dataVersion(Long surveyId) {
+        Survey survey = surveyRepository.findById(surveyId)
+                .orElseThrow(() -> new IllegalArgumentException("Survey results not found for ID: " + surveyId));
+        long updatedAt = survey.getUpdatedAt() != null ? survey.getUpdatedAt().toEpochMilli() : 0L;
+        return updatedAt + "-" + responsesRepository.countBySurveyId(surveyId) + "-"
+                + responsesRepository.findMaxIdBySurveyId(surveyId);
+    }
+
+    /**
+     * Stream survey analysis as CSV through an encoding such as gzip. Rows are
+     * compressed as they are written, and the raw/encoded sizes and compression
+     * ratio are recorded in the export metrics.
+     */
+    @Transactional(readOnly = true)
+    public void writeSurveyAnalysisAsCSV(Long surveyId, ExportOptions options, ExportEncoding encoding,
+            OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        CountingOutputStream encoded = new CountingOutputStream(out);
+        OutputStream encoder = encoding.wrap(encoded);
+        CountingOutputStream raw = new CountingOutputStream(encoder);
+
+        writeSurveyAnalysisAsCSV(surveyId, options, raw);
+        encoding.finish(encoder);
+
+        exportMetrics.record("csv", encoding, raw.getCount(), encoded.getCount(),
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    /**
+     * Stream survey analysis as CSV. Answers and submissions are read through
+     * forward-only cursors and written as they arrive, so memory use does not
+     * grow with the number of responses. The stream is flushed, not closed.
+     */
+    @Transactional(readOnly = true)
+    public void writeSurveyAnalysisAsCSV(Long surveyId, ExportOptions options, OutputStream out) throws IOException {
         if (surveyId == null) {
             throw new IllegalArgumentException("Survey ID cannot be null");
         }
@@ -36,280 +117,551 @@ public class ExportService {
             throw new IllegalArgumentException("Export options cannot be null");
         }
 
-        SurveyResultsResponse results = surveyService.getSurveyResults(surveyId);
-        if (results == null) {
-            throw new IllegalArgumentException("Survey results not found for ID: " + surveyId);
+        Survey survey = surveyRepository.findByIdWithQuestions(surveyId)
+                .orElseThrow(() -> new IllegalArgumentException("Survey results not found for ID: " + surveyId));
+        long totalResponses = responsesRepository.countBySurveyId(surveyId);
+        int totalQuestions = survey.getQuestions().size();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        CsvWriter csv = new CsvWriter(writer);
+
+        // Survey Overview Section
+        csv.line("=== SURVEY ANALYSIS REPORT ===");
+        csv.blankLine();
+        csv.row("Survey Title", survey.getTitle() != null ? survey.getTitle() : "N/A");
+        csv.row("Survey Description", survey.getDescription() != null ? survey.getDescription() : "N/A");
+        csv.field("Survey ID").field(survey.getId()).endRow();
+        csv.field("Created At");
+        if (survey.getCreatedAt() != null) {
+            csv.field(survey.getCreatedAt().atZone(java.time.ZoneId.systemDefault()), DATE_FORMATTER);
+        } else {
+            csv.field("N/A");
         }
+        csv.endRow();
+        csv.field("Total Responses").field(totalResponses).endRow();
+        csv.field("Total Questions").field(totalQuestions).endRow();
+        csv.field("Overall Completion Rate");
+        if (totalQuestions > 0) {
+            csv.percent((double) totalResponses / totalQuestions * 100, 1);
+        } else {
+            csv.field("N/A");
+        }
+        csv.endRow();
+        csv.blankLine();
+        csv.blankLine();
 
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-                OutputStreamWriter writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
-                PrintWriter csvWriter = new PrintWriter(writer)) {
-
-            // Survey Overview Section
-            csvWriter.println("=== SURVEY ANALYSIS REPORT ===");
-            csvWriter.println();
-            csvWriter.println(
-                    formatCSVRow("Survey Title", results.surveyTitle() != null ? results.surveyTitle() : "N/A"));
-            csvWriter.println(formatCSVRow("Survey Description",
-                    results.surveyDescription() != null ? results.surveyDescription() : "N/A"));
-            csvWriter.println(formatCSVRow("Survey ID", String.valueOf(results.surveyId())));
-            csvWriter.println(formatCSVRow("Created At",
-                    results.surveyCreatedAt() != null
-                            ? results.surveyCreatedAt().atZone(java.time.ZoneId.systemDefault()).format(DATE_FORMATTER)
-                            : "N/A"));
-            csvWriter.println(formatCSVRow("Total Responses", String.valueOf(results.totalResponses())));
-            csvWriter.println(formatCSVRow("Total Questions", String.valueOf(results.totalQuestions())));
-            csvWriter.println(formatCSVRow("Overall Completion Rate",
-                    results.totalQuestions() > 0
-                            ? String.format("%.1f%%",
-                                    (double) results.totalResponses() / results.totalQuestions() * 100)
-                            : "N/A"));
-            csvWriter.println();
-            csvWriter.println();
-
-            // Question Analysis Section
-            if (options.includeQuestionAnalysis() && results.questionResults() != null) {
-                exportQuestionAnalysisToCSV(csvWriter, results.questionResults());
-            }
+        // Question Analysis Section
+        if (options.includeQuestionAnalysis()) {
+            exportQuestionAnalysisToCSV(csv, buildQuestionResults(survey, totalResponses));
+        }
 
-            // Respondent Data Section
-            if (options.includeRespondentData() && results.respondents() != null) {
-                exportRespondentDataToCSV(csvWriter, results.respondents());
-            }
+        // Respondent Data Section
+        if (options.includeRespondentData()) {
+            exportRespondentDataToCSV(csv, surveyId, totalResponses);
+        }
 
-            // Raw Response Data Section
-            if (options.includeRawResponses() && results.respondents() != null) {
-                exportRawResponsesToCSV(csvWriter, results.respondents());
-            }
+        // Raw Response Data Section
+        if (options.includeRawResponses()) {
+            exportRawResponsesToCSV(csv, surveyId, totalResponses);
+        }
+
+        csv.flush();
+    }
 
-            csvWriter.flush();
-            return outputStream.toByteArray();
+    /**
+     * Compute per-question analytics in one pass over an answer cursor. Answers
+     * to questions of retired survey versions count towards their compatible
+     * current question.
+     */
+    private List<QuestionResultDTO> buildQuestionResults(Survey survey, long totalResponses) {
+        Map<Long, QuestionAnalyticsAccumulator> accumulators = new HashMap<>();
+        for (Question question : survey.getQuestions()) {
+            accumulators.put(question.getId(),
+                    new QuestionAnalyticsAccumulator(question.getType(), question.getOptionsJson()));
+        }
+
+        SurveyPlan plan = survey.getCurrentVersion() != null && survey.getCurrentVersion() > 1
+                ? surveyPlanCache.getPlan(survey.getId())
+                : null;
+        try (Stream<ExportAnswerRow> rows = answersRepository.streamExportRowsBySurveyId(survey.getId())) {
+            rows.forEach(row -> {
+                Long questionId = plan != null && row.questionId() != null
+                        ? plan.mergedQuestionId(row.questionId())
+                        : row.questionId();
+                QuestionAnalyticsAccumulator accumulator = accumulators.get(questionId);
+                if (accumulator != null) {
+                    accumulator.add(row.answerText(), row.ratingValue());
+                }
+            });
+        }
+
+        List<QuestionResultDTO> questionResults = new ArrayList<>();
+        for (Question question : survey.getQuestions()) {
+            QuestionAnalyticsAccumulator accumulator = accumulators.get(question.getId());
+            int answerCount = accumulator.answerCount();
+            double completionRate = totalResponses > 0 ? (double) answerCount / totalResponses * 100 : 0.0;
+            questionResults.add(new QuestionResultDTO(
+                    question.getId(),
+                    question.getQuestionText(),
+                    question.getType(),
+                    question.getOrderNumber(),
+                    question.getRequired(),
+                    answerCount,
+                    completionRate,
+                    List.of(),
+                    accumulator.toAnalytics()));
         }
+
+        // Sort questions by order number
+        questionResults.sort(Comparator.comparing(QuestionResultDTO::orderNumber,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        return questionResults;
     }
 
     /**
      * Export question analysis to CSV
      */
-    private void exportQuestionAnalysisToCSV(PrintWriter csvWriter,
-            java.util.List<QuestionResultDTO> questionResults) {
+    private void exportQuestionAnalysisToCSV(CsvWriter csv, List<QuestionResultDTO> questionResults)
+            throws IOException {
         if (questionResults == null || questionResults.isEmpty()) {
-            csvWriter.println("=== QUESTION ANALYSIS ===");
-            csvWriter.println();
-            csvWriter.println("No question data available");
-            csvWriter.println();
+            csv.line("=== QUESTION ANALYSIS ===");
+            csv.blankLine();
+            csv.line("No question data available");
+            csv.blankLine();
             return;
         }
 
-        csvWriter.println("=== QUESTION ANALYSIS ===");
-        csvWriter.println(); // Question overview table
-        csvWriter.println(formatCSVRow("Question ID", "Question Text", "Question Type", "Order", "Required",
-                "Total Answers", "Completion Rate %", "Average Rating", "Most Popular Option"));
+        csv.line("=== QUESTION ANALYSIS ===");
+        csv.blankLine(); // Question overview table
+        csv.row("Question ID", "Question Text", "Question Type", "Order", "Required",
+                "Total Answers", "Completion Rate %", "Average Rating", "Most Popular Option");
 
         for (QuestionResultDTO question : questionResults) {
             QuestionAnalyticsDTO analytics = question.analytics();
-            csvWriter.println(formatCSVRow(
-                    String.valueOf(question.questionId()),
-                    cleanTextForCSV(question.questionText()),
-                    question.questionType(),
-                    String.valueOf(question.orderNumber()),
-                    String.valueOf(question.required()),
-                    String.valueOf(question.totalAnswers()),
-                    String.format("%.1f", question.completionRate()),
-                    analytics != null && analytics.averageRating() != null
-                            ? String.format("%.2f", analytics.averageRating())
-                            : "N/A",
-                    analytics != null ? cleanTextForCSV(analytics.mostPopularOption()) : "N/A"));
-        }
-
-        csvWriter.println();
+            csv.field(question.questionId())
+                    .text(question.questionText())
+                    .field(question.questionType())
+                    .field(String.valueOf(question.orderNumber()))
+                    .field(String.valueOf(question.required()))
+                    .field(question.totalAnswers())
+                    .field(question.completionRate(), 1);
+            if (analytics != null && analytics.averageRating() != null) {
+                csv.field(analytics.averageRating(), 2);
+            } else {
+                csv.field("N/A");
+            }
+            if (analytics != null) {
+                csv.text(analytics.mostPopularOption());
+            } else {
+                csv.field("N/A");
+            }
+            csv.endRow();
+        }
+
+        csv.blankLine();
 
         // Detailed analytics for each question
         for (QuestionResultDTO question : questionResults) {
-            csvWriter.println();
-            csvWriter.println("--- Question " + question.orderNumber() + " Detailed Analysis ---");
-            csvWriter.println(formatCSVRow("Question:", cleanTextForCSV(question.questionText())));
-            csvWriter.println(formatCSVRow("Type:", question.questionType()));
-            csvWriter.println();
+            csv.blankLine();
+            csv.line("--- Question " + question.orderNumber() + " Detailed Analysis ---");
+            csv.field("Question:").text(question.questionText()).endRow();
+            csv.row("Type:", question.questionType());
+            csv.blankLine();
 
             QuestionAnalyticsDTO analytics = question.analytics();
             if (analytics != null) {
                 // Rating analytics
                 if (analytics.averageRating() != null) {
-                    csvWriter.println("Rating Statistics:");
-                    csvWriter.println(formatCSVRow("Average Rating", String.format("%.2f", analytics.averageRating())));
-                    csvWriter.println(formatCSVRow("Median Rating", String.valueOf(analytics.medianRating())));
-                    csvWriter.println(formatCSVRow("Min Rating", String.valueOf(analytics.minRating())));
-                    csvWriter.println(formatCSVRow("Max Rating", String.valueOf(analytics.maxRating())));
+                    csv.line("Rating Statistics:");
+                    csv.field("Average Rating").field(analytics.averageRating(), 2).endRow();
+                    csv.row("Median Rating", String.valueOf(analytics.medianRating()));
+                    csv.row("Min Rating", String.valueOf(analytics.minRating()));
+                    csv.row("Max Rating", String.valueOf(analytics.maxRating()));
 
                     if (analytics.ratingDistribution() != null) {
-                        csvWriter.println();
-                        csvWriter.println("Rating Distribution:");
-                        csvWriter.println(formatCSVRow("Rating", "Count", "Percentage"));
+                        csv.blankLine();
+                        csv.line("Rating Distribution:");
+                        csv.row("Rating", "Count", "Percentage");
                         int totalRatings = analytics.ratingDistribution().values().stream()
                                 .mapToInt(Integer::intValue).sum();
                         for (Map.Entry<String, Integer> entry : analytics.ratingDistribution().entrySet()) {
                             double percentage = totalRatings > 0 ? (double) entry.getValue() / totalRatings * 100 : 0.0;
-                            csvWriter.println(formatCSVRow(entry.getKey(), String.valueOf(entry.getValue()),
-                                    String.format("%.1f%%", percentage)));
+                            csv.field(entry.getKey()).field(entry.getValue()).percent(percentage, 1).endRow();
                         }
                     }
                 }
 
                 // Multiple choice analytics
                 if (analytics.optionCounts() != null && !analytics.optionCounts().isEmpty()) {
-                    csvWriter.println();
-                    csvWriter.println("Option Distribution:");
-                    csvWriter.println(formatCSVRow("Option", "Count", "Percentage"));
+                    csv.blankLine();
+                    csv.line("Option Distribution:");
+                    csv.row("Option", "Count", "Percentage");
                     for (Map.Entry<String, Integer> entry : analytics.optionCounts().entrySet()) {
                         Double percentage = analytics.optionPercentages() != null
                                 ? analytics.optionPercentages().get(entry.getKey())
                                 : null;
-                        csvWriter.println(formatCSVRow(
-                                cleanTextForCSV(entry.getKey()),
-                                String.valueOf(entry.getValue()),
-                                percentage != null ? String.format("%.1f%%", percentage) : "N/A"));
+                        csv.text(entry.getKey()).field(entry.getValue());
+                        if (percentage != null) {
+                            csv.percent(percentage, 1);
+                        } else {
+                            csv.field("N/A");
+                        }
+                        csv.endRow();
                     }
                 }
 
                 // Text analytics
                 if (analytics.averageTextLength() != null) {
-                    csvWriter.println();
-                    csvWriter.println("Text Analysis:");
-                    csvWriter.println(formatCSVRow("Average Length", String.valueOf(analytics.averageTextLength())));
-                    csvWriter.println(formatCSVRow("Min Length", String.valueOf(analytics.minTextLength())));
-                    csvWriter.println(formatCSVRow("Max Length", String.valueOf(analytics.maxTextLength())));
+                    csv.blankLine();
+                    csv.line("Text Analysis:");
+                    csv.row("Average Length", String.valueOf(analytics.averageTextLength()));
+                    csv.row("Min Length", String.valueOf(analytics.minTextLength()));
+                    csv.row("Max Length", String.valueOf(analytics.maxTextLength()));
 
                     if (analytics.commonKeywords() != null && !analytics.commonKeywords().isEmpty()) {
-                        csvWriter.println(
-                                formatCSVRow("Common Keywords", String.join(", ", analytics.commonKeywords())));
+                        csv.row("Common Keywords", String.join(", ", analytics.commonKeywords()));
                     }
                 }
             }
-            csvWriter.println();
+            csv.blankLine();
         }
     }
 
     /**
-     * Export respondent data to CSV
+     * Export respondent data to CSV, one row per submission from a cursor
      */
-    private void exportRespondentDataToCSV(PrintWriter csvWriter,
-            java.util.List<RespondentDTO> respondents) {
-        csvWriter.println();
-        csvWriter.println("=== RESPONDENT ANALYSIS ===");
-        csvWriter.println();
-
-        if (respondents == null || respondents.isEmpty()) {
-            csvWriter.println("No respondent data available");
-            csvWriter.println();
+    private void exportRespondentDataToCSV(CsvWriter csv, Long surveyId, long totalRespondents) throws IOException {
+        csv.blankLine();
+        csv.line("=== RESPONDENT ANALYSIS ===");
+        csv.blankLine();
+
+        if (totalRespondents == 0) {
+            csv.line("No respondent data available");
+            csv.blankLine();
             return;
         }
 
         // Summary statistics
-        long authenticatedCount = respondents.stream().filter(r -> !r.isAnonymous()).count();
-        long anonymousCount = respondents.stream().filter(RespondentDTO::isAnonymous).count();
-        csvWriter.println(formatCSVRow("Total Respondents", String.valueOf(respondents.size())));
-        csvWriter.println(formatCSVRow("Authenticated Users", String.valueOf(authenticatedCount)));
-        csvWriter.println(formatCSVRow("Anonymous Users", String.valueOf(anonymousCount)));
-        csvWriter.println(formatCSVRow("Authentication Rate",
-                respondents.size() > 0
-                        ? String.format("%.1f%%", (double) authenticatedCount / respondents.size() * 100)
-                        : "N/A"));
-        csvWriter.println();
+        long authenticatedCount = responsesRepository.countAuthenticatedBySurveyId(surveyId);
+        long anonymousCount = totalRespondents - authenticatedCount;
+        csv.field("Total Respondents").field(totalRespondents).endRow();
+        csv.field("Authenticated Users").field(authenticatedCount).endRow();
+        csv.field("Anonymous Users").field(anonymousCount).endRow();
+        csv.field("Authentication Rate").percent((double) authenticatedCount / totalRespondents * 100, 1).endRow();
+        csv.blankLine();
 
         // Respondent details table
-        csvWriter.println(formatCSVRow("Respondent ID", "Name", "Email", "Type", "Total Answers",
-                "First Submission", "Response Count"));
-
-        for (RespondentDTO respondent : respondents) {
-            csvWriter.println(formatCSVRow(
-                    respondent.respondentId(),
-                    respondent.isAnonymous() ? "Anonymous" : cleanTextForCSV(respondent.name()),
-                    respondent.isAnonymous() ? "N/A" : cleanTextForCSV(respondent.email()),
-                    respondent.isAnonymous() ? "Anonymous" : "Authenticated",
-                    String.valueOf(respondent.totalAnswersSubmitted()),
-                    respondent.firstSubmissionAt() != null ? respondent.firstSubmissionAt()
-                            .atZone(java.time.ZoneId.systemDefault()).format(DATE_FORMATTER) : "N/A",
-                    String.valueOf(respondent.responses() != null ? respondent.responses().size() : 0)));
-        }
-        csvWriter.println();
+        csv.row("Respondent ID", "Name", "Email", "Type", "Total Answers", "First Submission", "Response Count");
+
+        try (Stream<ExportRespondentRow> rows = responsesRepository.streamExportRowsBySurveyId(surveyId)) {
+            Iterator<ExportRespondentRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ExportRespondentRow respondent = iterator.next();
+                csv.field("response_" + respondent.responseId());
+                if (respondent.isAnonymous()) {
+                    csv.field("Anonymous").field("N/A").field("Anonymous");
+                } else {
+                    csv.text(respondent.name()).text(respondent.email()).field("Authenticated");
+                }
+                csv.field(respondent.answerCount());
+                writeTimestamp(csv, respondent.submittedAt());
+                csv.field(respondent.answerCount());
+                csv.endRow();
+            }
+        }
+        csv.blankLine();
     }
 
     /**
-     * Export raw responses to CSV
+     * Export raw responses to CSV, one row per answer from a cursor
      */
-    private void exportRawResponsesToCSV(PrintWriter csvWriter,
-            java.util.List<RespondentDTO> respondents) {
-        csvWriter.println();
-        csvWriter.println("=== RAW RESPONSE DATA ===");
-        csvWriter.println();
-
-        if (respondents == null || respondents.isEmpty()) {
-            csvWriter.println("No response data available");
+    private void exportRawResponsesToCSV(CsvWriter csv, Long surveyId, long totalRespondents) throws IOException {
+        csv.blankLine();
+        csv.line("=== RAW RESPONSE DATA ===");
+        csv.blankLine();
+
+        if (totalRespondents == 0) {
+            csv.line("No response data available");
             return;
         }
 
-        csvWriter.println(formatCSVRow("Respondent ID", "Respondent Name", "Respondent Email", "Question ID",
-                "Question Text", "Answer Text", "Rating Value", "Submitted At"));
-        for (RespondentDTO respondent : respondents) {
-            if (respondent.responses() != null) {
-                for (ResponseDetailDTO response : respondent.responses()) {
-                    csvWriter.println(formatCSVRow(
-                            respondent.respondentId(),
-                            respondent.isAnonymous() ? "Anonymous" : cleanTextForCSV(respondent.name()),
-                            respondent.isAnonymous() ? "N/A" : cleanTextForCSV(respondent.email()),
-                            String.valueOf(response.questionId()),
-                            cleanTextForCSV(response.questionText()),
-                            cleanTextForCSV(response.answerText()),
-                            response.ratingValue() != null ? String.valueOf(response.ratingValue()) : "N/A",
-                            response.submittedAt() != null
-                                    ? response.submittedAt().atZone(java.time.ZoneId.systemDefault())
-                                            .format(DATE_FORMATTER)
-                                    : "N/A"));
+        csv.row("Respondent ID", "Respondent Name", "Respondent Email", "Question ID",
+                "Question Text", "Answer Text", "Rating Value", "Submitted At");
+        try (Stream<ExportAnswerRow> rows = answersRepository.streamSubmittedExportRowsBySurveyId(surveyId)) {
+            Iterator<ExportAnswerRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ExportAnswerRow response = iterator.next();
+                csv.field("response_" + response.responseId());
+                if (response.userId() == null) {
+                    csv.field("Anonymous").field("N/A");
+                } else {
+                    csv.text(response.userName()).text(response.userEmail());
                 }
+                csv.field(response.questionId())
+                        .text(response.questionText())
+                        .text(response.answerText());
+                if (response.ratingValue() != null) {
+                    csv.field(response.ratingValue());
+                } else {
+                    csv.field("N/A");
+                }
+                writeTimestamp(csv, response.submittedAt());
+                csv.endRow();
             }
         }
     }
 
-    /**
-     * Format CSV row with proper escaping
-     */
-    private String formatCSVRow(String... values) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < values.length; i++) {
-            if (i > 0)
-                sb.append(",");
-            sb.append(escapeCSVValue(values[i]));
-        }
-        return sb.toString();
+    private static void writeTimestamp(CsvWriter csv, Instant timestamp) throws IOException {
+        if (timestamp != null) {
+            csv.field(timestamp.atZone(java.time.ZoneId.systemDefault()), DATE_FORMATTER);
+        } else {
+            csv.field("N/A");
+        }
     }
 
     /**
-     * Escape CSV value (add quotes if necessary)
+     * Stream survey analysis as an XLSX workbook with one sheet per section
+     * (Overview, Question Analysis, Respondents, Raw Responses). Rows go
+     * straight from the cursors into the sheet XML, so memory does not grow
+     * with the number of responses. Raw responses continue on further sheets
+     * past Excel's row limit.
      */
-    private String escapeCSVValue(String value) {
-        if (value == null)
-            return "\"\"";
+    @Transactional(readOnly = true)
+    public void writeSurveyAnalysisAsXLSX(Long surveyId, ExportOptions options, OutputStream out)
+            throws IOException {
+        if (surveyId == null) {
+            throw new IllegalArgumentException("Survey ID cannot be null");
+        }
+        if (options == null) {
+            throw new IllegalArgumentException("Export options cannot be null");
+        }
+
+        long started = System.nanoTime();
+        Survey survey = surveyRepository.findByIdWithQuestions(surveyId)
+                .orElseThrow(() -> new IllegalArgumentException("Survey results not found for ID: " + surveyId));
+        long totalResponses = responsesRepository.countBySurveyId(surveyId);
+        int totalQuestions = survey.getQuestions().size();
+
+        CountingOutputStream counted = new CountingOutputStream(out);
+        XlsxStreamWriter xlsx = new XlsxStreamWriter(counted);
+
+        // Overview sheet
+        xlsx.startSheet("Overview");
+        xlsx.row("Survey Title", survey.getTitle() != null ? survey.getTitle() : "N/A");
+        xlsx.row("Survey Description", survey.getDescription() != null ? survey.getDescription() : "N/A");
+        xlsx.row("Survey ID", survey.getId());
+        xlsx.row("Created At", formatInstant(survey.getCreatedAt()));
+        xlsx.row("Total Responses", totalResponses);
+        xlsx.row("Total Questions", totalQuestions);
+        xlsx.row("Overall Completion Rate %",
+                totalQuestions > 0 ? (double) totalResponses / totalQuestions * 100 : null);
+
+        if (options.includeQuestionAnalysis()) {
+            exportQuestionAnalysisToXLSX(xlsx, buildQuestionResults(survey, totalResponses));
+        }
+        if (options.includeRespondentData()) {
+            exportRespondentDataToXLSX(xlsx, surveyId, totalResponses);
+        }
+        if (options.includeRawResponses()) {
+            exportRawResponsesToXLSX(xlsx, surveyId);
+        }
+
+        xlsx.finish();
+        exportMetrics.record("xlsx", ExportEncoding.IDENTITY, counted.getCount(), counted.getCount(),
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private void exportQuestionAnalysisToXLSX(XlsxStreamWriter xlsx, List<QuestionResultDTO> questionResults)
+            throws IOException {
+        xlsx.startSheet("Question Analysis");
+        xlsx.row("Question ID", "Question Text", "Question Type", "Order", "Required",
+                "Total Answers", "Completion Rate %", "Average Rating", "Most Popular Option");
+        for (QuestionResultDTO question : questionResults) {
+            QuestionAnalyticsDTO analytics = question.analytics();
+            xlsx.row(question.questionId(), question.questionText(), question.questionType(),
+                    question.orderNumber(), String.valueOf(question.required()), question.totalAnswers(),
+                    question.completionRate(),
+                    analytics != null ? analytics.averageRating() : null,
+                    analytics != null ? analytics.mostPopularOption() : null);
+        }
+
+        // Detailed analytics for each question
+        for (QuestionResultDTO question : questionResults) {
+            QuestionAnalyticsDTO analytics = question.analytics();
+            xlsx.blankRow();
+            xlsx.row("Question " + question.orderNumber() + " Detailed Analysis");
+            xlsx.row("Question:", question.questionText());
+            xlsx.row("Type:", question.questionType());
+            if (analytics == null) {
+                continue;
+            }
+
+            if (analytics.averageRating() != null) {
+                xlsx.row("Average Rating", analytics.averageRating());
+                xlsx.row("Median Rating", analytics.medianRating());
+                xlsx.row("Min Rating", analytics.minRating());
+                xlsx.row("Max Rating", analytics.maxRating());
+                if (analytics.ratingDistribution() != null) {
+                    int totalRatings = analytics.ratingDistribution().values().stream()
+                            .mapToInt(Integer::intValue).sum();
+                    xlsx.row("Rating", "Count", "Percentage %");
+                    for (Map.Entry<String, Integer> entry : analytics.ratingDistribution().entrySet()) {
+                        xlsx.row(entry.getKey(), entry.getValue(),
+                                totalRatings > 0 ? (double) entry.getValue() / totalRatings * 100 : 0.0);
+                    }
+                }
+            }
+
+            if (analytics.optionCounts() != null && !analytics.optionCounts().isEmpty()) {
+                xlsx.row("Option", "Count", "Percentage %");
+                for (Map.Entry<String, Integer> entry : analytics.optionCounts().entrySet()) {
+                    xlsx.row(entry.getKey(), entry.getValue(),
+                            analytics.optionPercentages() != null
+                                    ? analytics.optionPercentages().get(entry.getKey())
+                                    : null);
+                }
+            }
+
+            if (analytics.averageTextLength() != null) {
+                xlsx.row("Average Length", analytics.averageTextLength());
+                xlsx.row("Min Length", analytics.minTextLength());
+                xlsx.row("Max Length", analytics.maxTextLength());
+                if (analytics.commonKeywords() != null && !analytics.commonKeywords().isEmpty()) {
+                    xlsx.row("Common Keywords", String.join(", ", analytics.commonKeywords()));
+                }
+            }
+        }
+    }
 
-        String cleaned = value.replaceAll("[\r\n]+", " ").trim();
+    private void exportRespondentDataToXLSX(XlsxStreamWriter xlsx, Long surveyId, long totalRespondents)
+            throws IOException {
+        xlsx.startSheet("Respondents");
+        long authenticatedCount = responsesRepository.countAuthenticatedBySurveyId(surveyId);
+        xlsx.row("Total Respondents", totalRespondents);
+        xlsx.row("Authenticated Users", authenticatedCount);
+        xlsx.row("Anonymous Users", totalRespondents - authenticatedCount);
+        xlsx.row("Authentication Rate %",
+                totalRespondents > 0 ? (double) authenticatedCount / totalRespondents * 100 : null);
+        xlsx.blankRow();
+
+        xlsx.row("Respondent ID", "Name", "Email", "Type", "Total Answers", "First Submission");
+        try (Stream<ExportRespondentRow> rows = responsesRepository.streamExportRowsBySurveyId(surveyId)) {
+            Iterator<ExportRespondentRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ExportRespondentRow respondent = iterator.next();
+                xlsx.row("response_" + respondent.responseId(),
+                        respondent.isAnonymous() ? "Anonymous" : respondent.name(),
+                        respondent.isAnonymous() ? "N/A" : respondent.email(),
+                        respondent.isAnonymous() ? "Anonymous" : "Authenticated",
+                        respondent.answerCount(),
+                        formatInstant(respondent.submittedAt()));
+            }
+        }
+    }
 
-        // If the value contains comma, quote, or newline, wrap in quotes and escape
-        // internal quotes
-        if (cleaned.contains(",") || cleaned.contains("\"") || cleaned.contains("\n") || cleaned.contains("\r")) {
-            return "\"" + cleaned.replace("\"", "\"\"") + "\"";
+    private void exportRawResponsesToXLSX(XlsxStreamWriter xlsx, Long surveyId) throws IOException {
+        Object[] header = { "Respondent ID", "Respondent Name", "Respondent Email", "Question ID",
+                "Question Text", "Answer Text", "Rating Value", "Submitted At" };
+        xlsx.startSheet("Raw Responses");
+        xlsx.row(header);
+
+        try (Stream<ExportAnswerRow> rows = answersRepository.streamSubmittedExportRowsBySurveyId(surveyId)) {
+            Iterator<ExportAnswerRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ExportAnswerRow response = iterator.next();
+                if (xlsx.getRowsInSheet() >= XlsxStreamWriter.MAX_ROWS_PER_SHEET) {
+                    xlsx.startSheet("Raw Responses");
+                    xlsx.row(header);
+                }
+                boolean isAnonymous = response.userId() == null;
+                xlsx.row("response_" + response.responseId(),
+                        isAnonymous ? "Anonymous" : response.userName(),
+                        isAnonymous ? "N/A" : response.userEmail(),
+                        response.questionId(),
+                        response.questionText(),
+                        response.answerText(),
+                        response.ratingValue(),
+                        formatInstant(response.submittedAt()));
+            }
         }
+    }
+
+    private static String formatInstant(java.time.Instant instant) {
+        return instant != null ? instant.atZone(java.time.ZoneId.systemDefault()).format(DATE_FORMATTER) : "N/A";
+    }
 
-        return cleaned;
+    /**
+     * Watermark for an incremental raw export: the latest answer timestamp on
+     * surveys that are not deleted (optionally for one survey), capped at
+     * {@code now - grace}, or {@code since} when there is nothing newer.
+     * <p>
+     * Contract: every answer with {@code created_at <= watermark} is committed
+     * by the time the watermark is returned, so exporting (since, watermark]
+     * and passing the watermark as the next {@code since} loses no rows.
+     * {@code created_at} is stamped in Java before commit (at enqueue time
+     * with write-behind ingestion), so rows newer than the grace period may
+     * still be in flight; they are left for the next run. The grace
+     * ({@code app.export.watermark-grace-seconds}) must exceed the ingestion
+     * queue delay plus transaction latency.
+     */
+    @Transactional(readOnly = true)
+    public Instant answerWatermark(Long surveyId, Instant since) {
+        Instant latest = answersRepository.findLatestCreatedAt(surveyId);
+        if (latest == null) {
+            return since;
+        }
+        Instant settled = Instant.now().minusSeconds(watermarkGraceSeconds);
+        Instant watermark = latest.isBefore(settled) ? latest : settled;
+        return watermark.isAfter(since) ? watermark : since;
     }
 
     /**
-     * Clean text for CSV output (remove line breaks, excessive whitespace)
+     * Stream raw answers created in (since, until] as NDJSON, one object per
+     * line, written with a JsonGenerator straight from the cursor
      */
-    private String cleanTextForCSV(String text) {
-        if (text == null)
-            return "";
-        return text.replaceAll("[\r\n]+", " ")
-                .replaceAll("\\s+", " ")
-                .trim();
+    @Transactional(readOnly = true)
+    public void writeAnswersAsNDJSON(Long surveyId, Instant since, Instant until, OutputStream out)
+            throws IOException {
+        long started = System.nanoTime();
+        CountingOutputStream counted = new CountingOutputStream(out);
+        try (JsonGenerator json = jsonFactory.createGenerator(counted);
+                Stream<ExportAnswerRow> rows = answersRepository.streamExportRowsCreatedBetween(surveyId, since,
+                        until)) {
+            // The caller owns the response stream
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            Iterator<ExportAnswerRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ExportAnswerRow row = iterator.next();
+                json.writeStartObject();
+                json.writeNumberField("answerId", row.answerId());
+                writeNullableNumber(json, "responseId", row.responseId());
+                json.writeNumberField("surveyId", row.surveyId());
+                json.writeNumberField("questionId", row.questionId());
+                json.writeStringField("questionType", row.questionType());
+                json.writeStringField("answerText", row.answerText());
+                if (row.ratingValue() != null) {
+                    json.writeNumberField("ratingValue", row.ratingValue());
+                } else {
+                    json.writeNullField("ratingValue");
+                }
+                writeNullableNumber(json, "userId", row.userId());
+                json.writeStringField("createdAt", row.submittedAt() != null ? row.submittedAt().toString() : null);
+                json.writeEndObject();
+                json.writeRaw('\n');
+            }
+            json.flush();
+        }
+        exportMetrics.record("ndjson", ExportEncoding.IDENTITY, counted.getCount(), counted.getCount(),
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private static void writeNullableNumber(JsonGenerator json, String field, Long value) throws IOException {
+        if (value != null) {
+            json.writeNumberField(field, value);
+        } else {
+            json.writeNullField(field);
+        }
     }
 
     /**
@@ -0,0 +1,43 @@
+package com.training.feedbacktool.service;
+
+import com.training.feedbacktool.util.InvalidatingLruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of serialized public survey responses by survey id, each
+ * with a strong ETag. Hot fetches are served from the stored bytes without touching the
+ * database or Jackson. Entries are dropped when a survey is updated or deleted
+ * (after the transaction commits).
+ */
+@Service
+public class PublicSurveyCache {
+
+    private final InvalidatingLruCache<Long, Payload> payloads;
+
+    public PublicSurveyCache(@Value("${app.public-survey.cache.max-size:1000}") int maxSize) {
+        this.payloads = new InvalidatingLruCache<>(maxSize);
+    }
+
+    /**
+     * Get the payload for a survey, building it with the loader on first use
+     */
+    public Payload get(Long surveyId, Supplier<Payload> loader) {
+        return payloads.get(surveyId, loader);
+    }
+
+    /**
+     * Drop a survey's payload once the current transaction (if any) commits
+     */
+    public void invalidate(Long surveyId) {
+        payloads.invalidate(surveyId);
+    }
+
+    /**
+     * Serialized response body and its quoted strong ETag
+     */
+    public record Payload(byte[] json, String etag) {
+    }
+}
@@ -0,0 +1,233 @@
+package com.training.feedbacktool.service;
+
+import com.training.feedbacktool.dto.SurveyResultsResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Builds a question's analytics one answer at a time, so callers can feed it
+ * from a cursor instead of holding every answer in memory. State is bounded by
+ * the number of distinct options/words, not by the number of answers.
+ */
+final class QuestionAnalyticsAccumulator {
+
+    private final String questionType;
+    private final String optionsJson;
+    private int answerCount;
+
+    // RATING: counts per rating value 0-5
+    private final int[] ratingCounts = new int[6];
+
+    // MULTIPLE_CHOICE, RADIO, DROPDOWN
+    private final Map<String, Integer> answeredOptions = new HashMap<>();
+
+    // TEXT, LONG_TEXT
+    private int textCount;
+    private long textLengthSum;
+    private int minTextLength = Integer.MAX_VALUE;
+    private int maxTextLength;
+    private int nonBlankTextCount;
+    private long nonBlankLengthSum;
+    private int totalWords;
+    private final Map<String, Integer> wordFrequency = new HashMap<>();
+
+    QuestionAnalyticsAccumulator(String questionType, String optionsJson) {
+        this.questionType = questionType != null ? questionType.toUpperCase(Locale.ROOT) : "";
+        this.optionsJson = optionsJson;
+    }
+
+    void add(String answerText, Integer ratingValue) {
+        answerCount++;
+        switch (questionType) {
+            case "RATING" -> {
+                if (ratingValue != null && ratingValue >= 0 && ratingValue <= 5) {
+                    ratingCounts[ratingValue]++;
+                }
+            }
+            case "MULTIPLE_CHOICE", "RADIO", "DROPDOWN" -> {
+                if (answerText != null && !answerText.trim().isEmpty()) {
+                    answeredOptions.merge(answerText.trim(), 1, Integer::sum);
+                }
+            }
+            case "TEXT", "LONG_TEXT" -> addText(answerText);
+            default -> {
+            }
+        }
+    }
+
+    private void addText(String text) {
+        if (text == null) {
+            return;
+        }
+        textCount++;
+        textLengthSum += text.length();
+        minTextLength = Math.min(minTextLength, text.length());
+        maxTextLength = Math.max(maxTextLength, text.length());
+
+        if (text.trim().isEmpty()) {
+            return;
+        }
+        nonBlankTextCount++;
+        nonBlankLengthSum += text.length();
+        totalWords += text.split("\\s+").length;
+
+        // Simple word extraction (split by whitespace and punctuation)
+        String[] words = text.toLowerCase()
+                .replaceAll("[^a-zA-Z0-9\\s]", "")
+                .split("\\s+");
+        for (String word : words) {
+            if (word.length() > 2) { // Ignore very short words
+                wordFrequency.merge(word, 1, Integer::sum);
+            }
+        }
+    }
+
+    int answerCount() {
+        return answerCount;
+    }
+
+    SurveyResultsResponse.QuestionAnalyticsDTO toAnalytics() {
+        Double averageRating = null;
+        Double medianRating = null;
+        Integer minRating = null;
+        Integer maxRating = null;
+        Map<String, Integer> ratingDistribution = new HashMap<>();
+        Map<String, Integer> optionCounts = new HashMap<>();
+        Map<String, Double> optionPercentages = new HashMap<>();
+        String mostPopularOption = null;
+        String leastPopularOption = null;
+        Integer averageTextLength = null;
+        Integer minLength = null;
+        Integer maxLength = null;
+        List<String> commonKeywords = new ArrayList<>();
+        Map<String, Object> customMetrics = new HashMap<>();
+
+        if (answerCount == 0) {
+            return new SurveyResultsResponse.QuestionAnalyticsDTO(
+                    averageRating, medianRating, minRating, maxRating, ratingDistribution,
+                    optionCounts, optionPercentages, mostPopularOption, leastPopularOption,
+                    averageTextLength, minLength, maxLength, commonKeywords, customMetrics);
+        }
+
+        switch (questionType) {
+            case "RATING" -> {
+                int totalRatings = 0;
+                long ratingSum = 0;
+                for (int rating = 0; rating < ratingCounts.length; rating++) {
+                    if (ratingCounts[rating] > 0) {
+                        ratingDistribution.put(String.valueOf(rating), ratingCounts[rating]);
+                        totalRatings += ratingCounts[rating];
+                        ratingSum += (long) rating * ratingCounts[rating];
+                        if (minRating == null) {
+                            minRating = rating;
+                        }
+                        maxRating = rating;
+                    }
+                }
+                customMetrics.put("totalRatings", totalRatings);
+                customMetrics.put("uniqueRatings", ratingDistribution.size());
+
+                if (totalRatings > 0) {
+                    averageRating = (double) ratingSum / totalRatings;
+                    medianRating = totalRatings % 2 == 0
+                            ? (ratingAt(totalRatings / 2 - 1) + ratingAt(totalRatings / 2)) / 2.0
+                            : (double) ratingAt(totalRatings / 2);
+                }
+            }
+            case "MULTIPLE_CHOICE", "RADIO", "DROPDOWN" -> {
+                // Predefined options start at 0 so unanswered ones are still listed
+                List<String> availableOptions = parseOptions(optionsJson);
+                for (String option : availableOptions) {
+                    optionCounts.put(option, 0);
+                }
+                answeredOptions.forEach((option, count) -> optionCounts.merge(option, count, Integer::sum));
+
+                for (Map.Entry<String, Integer> entry : optionCounts.entrySet()) {
+                    optionPercentages.put(entry.getKey(), (double) entry.getValue() / answerCount * 100);
+                }
+
+                customMetrics.put("totalAnswers", answerCount);
+                customMetrics.put("uniqueOptions", optionCounts.size());
+                customMetrics.put("predefinedOptions", availableOptions.size());
+
+                if (!optionCounts.isEmpty()) {
+                    mostPopularOption = optionCounts.entrySet().stream()
+                            .max(Map.Entry.comparingByValue())
+                            .map(Map.Entry::getKey)
+                            .orElse(null);
+                    leastPopularOption = optionCounts.entrySet().stream()
+                            .min(Map.Entry.comparingByValue())
+                            .map(Map.Entry::getKey)
+                            .orElse(null);
+                }
+            }
+            case "TEXT", "LONG_TEXT" -> {
+                customMetrics.put("totalTextAnswers", nonBlankTextCount);
+                customMetrics.put("emptyAnswers", answerCount - nonBlankTextCount);
+                if (nonBlankTextCount > 0) {
+                    customMetrics.put("averageLength", (double) nonBlankLengthSum / nonBlankTextCount);
+                    customMetrics.put("totalWords", totalWords);
+                    customMetrics.put("averageWords", (double) totalWords / nonBlankTextCount);
+                }
+
+                if (textCount > 0) {
+                    averageTextLength = (int) ((double) textLengthSum / textCount);
+                    minLength = minTextLength;
+                    maxLength = maxTextLength;
+
+                    // Top 5 most frequent words
+                    commonKeywords = wordFrequency.entrySet().stream()
+                            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                            .limit(5)
+                            .map(Map.Entry::getKey)
+                            .collect(Collectors.toList());
+                }
+            }
+            default -> {
+                // For unknown question types, just provide basic metrics
+                customMetrics.put("totalAnswers", answerCount);
+                customMetrics.put("questionType", questionType);
+            }
+        }
+
+        return new SurveyResultsResponse.QuestionAnalyticsDTO(
+                averageRating, medianRating, minRating, maxRating, ratingDistribution,
+                optionCounts, optionPercentages, mostPopularOption, leastPopularOption,
+                averageTextLength, minLength, maxLength, commonKeywords, customMetrics);
+    }
+
+    // Rating at a position of the sorted ratings, read off the distribution
+    private int ratingAt(int position) {
+        int seen = 0;
+        for (int rating = 0; rating < ratingCounts.length; rating++) {
+            seen += ratingCounts[rating];
+            if (position < seen) {
+                return rating;
+            }
+        }
+        throw new IllegalStateException("Rating position out of range: " + position);
+    }
+
+    // Simple JSON array parsing (assuming ["option1", "option2", ...])
+    private static List<String> parseOptions(String optionsJson) {
+        List<String> availableOptions = new ArrayList<>();
+        if (optionsJson == null || optionsJson.trim().isEmpty()) {
+            return availableOptions;
+        }
+        String json = optionsJson.trim();
+        if (json.startsWith("[") && json.endsWith("]")) {
+            for (String option : json.substring(1, json.length() - 1).split(",")) {
+                String cleanOption = option.trim().replaceAll("\"", "");
+                if (!cleanOption.isEmpty()) {
+                    availableOptions.add(cleanOption);
+                }
+            }
+        }
+        return availableOptions;
+    }
+}
@@ -2,21 +2,23 @@ package com.training.feedbacktool.service;
 
 import com.training.feedbacktool.dto.SubmitResponseRequest;
 import com.training.feedbacktool.entity.Answer;
-import com.training.feedbacktool.entity.Question;
 import com.training.feedbacktool.entity.Response;
-import com.training.feedbacktool.entity.Survey;
 import com.training.feedbacktool.entity.User;
 import com.training.feedbacktool.repository.AnswersRepository;
+import com.training.feedbacktool.repository.QuestionRepository;
 import com.training.feedbacktool.repository.ResponsesRepository;
 import com.training.feedbacktool.repository.SurveyRepository;
 import com.training.feedbacktool.repository.UserRepository;
 import com.training.feedbacktool.util.JwtUtil;
+import com.training.feedbacktool.util.VerifiedToken;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,34 +30,56 @@ public class ResponseService {
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
     private final EmailService emailService;
+    private final SurveyStatsService surveyStatsService;
+    private final QuestionRepository questionRepository;
+    private final SurveyPlanCache surveyPlanCache;
+    private final UserDashboardCache userDashboardCache;
 
     public ResponseService(SurveyRepository surveyRepository,
             AnswersRepository answersRepository,
             ResponsesRepository responsesRepository,
             UserRepository userRepository,
             JwtUtil jwtUtil,
-            EmailService emailService) {
+            EmailService emailService,
+            SurveyStatsService surveyStatsService,
+            QuestionRepository questionRepository,
+            SurveyPlanCache surveyPlanCache,
+            UserDashboardCache userDashboardCache) {
         this.surveyRepository = surveyRepository;
         this.answersRepository = answersRepository;
         this.responsesRepository = responsesRepository;
         this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
         this.emailService = emailService;
+        this.surveyStatsService = surveyStatsService;
+        this.questionRepository = questionRepository;
+        this.surveyPlanCache = surveyPlanCache;
+        this.userDashboardCache = userDashboardCache;
     }
 
     @Transactional
     public void submitSurveyResponse(Long surveyId, SubmitResponseRequest request, String authToken) {
-        // Get the survey
-        Survey survey = surveyRepository.findById(surveyId)
-                .orElseThrow(() -> new IllegalArgumentException("Survey not found with id: " + surveyId));
+        PreparedSubmission submission = prepareSubmission(surveyId, request, authToken);
+        persistSubmissions(List.of(submission));
+        notifyAdmins(List.of(submission));
+    }
+
+    /**
+     * Validate a submission against the survey's cached plan and build the
+     * entities to persist, without writing anything or reading the survey tables
+     */
+    @Transactional(readOnly = true)
+    public PreparedSubmission prepareSubmission(Long surveyId, SubmitResponseRequest request, String authToken) {
+        // Get the compiled survey plan
+        SurveyPlan plan = surveyPlanCache.getPlan(surveyId);
 
         // Check if survey is active
-        if (!"ACTIVE".equalsIgnoreCase(survey.getStatus())) {
+        if (!plan.isActive()) {
             throw new IllegalStateException("Survey is not accepting responses");
         }
 
         // Check if survey has expired
-        if (survey.getEndDate() != null && Instant.now().isAfter(survey.getEndDate())) {
+        if (plan.endDate() != null && Instant.now().isAfter(plan.endDate())) {
             throw new IllegalStateException("Survey has expired and is no longer accepting responses");
         }
 
@@ -63,44 +87,40 @@ public class ResponseService {
         User user = null;
         if (authToken != null && authToken.startsWith("Bearer ")) {
             try {
-                String jwt = authToken.substring(7);
-                String email = jwtUtil.extractEmail(jwt);
-                if (email != null && !jwtUtil.isTokenExpired(jwt)) {
-                    user = userRepository.findByEmailIgnoreCase(email).orElse(null);
+                VerifiedToken token = jwtUtil.verify(authToken.substring(7));
+                if (token.email() != null && !token.isExpired()) {
+                    user = userRepository.findByEmailIgnoreCase(token.email()).orElse(null);
                 }
             } catch (Exception e) {
                 // Token is invalid, proceed as anonymous
             }
         }
 
-        // Create a map of questions by ID for validation
-        Map<Long, Question> questionsById = survey.getQuestions().stream()
-                .collect(Collectors.toMap(Question::getId, q -> q));
-
         // Validate required questions
-        validateRequiredQuestions(questionsById, request);
+        validateRequiredQuestions(plan, request);
 
-        // Create a Response entity for this survey submission
+        // Create a Response entity for this survey submission; the survey and
+        // questions are referenced by id only
         Response surveyResponse = Response.builder()
-                .survey(survey)
+                .survey(surveyRepository.getReferenceById(surveyId))
                 .user(user) // null for anonymous responses
                 .responseText("Survey response submitted") // Generic text for now
                 .completionTimeSeconds(request.completionTimeSeconds()) // Store completion time
+                .surveyVersion(plan.surveyVersion()) // Version whose questions were answered
                 .createdAt(Instant.now())
                 .build();
 
-        responsesRepository.save(surveyResponse);
-
-        // Save answers
+        // Build answers; they are saved together so the inserts go out as one batch
+        List<Answer> answers = new ArrayList<>(request.answers().size());
         for (SubmitResponseRequest.AnswerDTO answerDto : request.answers()) {
-            Question question = questionsById.get(answerDto.questionId());
-            if (question == null) {
+            int index = answerDto.questionId() != null ? plan.indexOf(answerDto.questionId()) : -1;
+            if (index < 0) {
                 throw new IllegalArgumentException(
                         "Question " + answerDto.questionId() + " is not part of survey " + surveyId);
             }
 
             // Handle different question types
-            boolean isRatingQuestion = "RATING".equalsIgnoreCase(question.getType());
+            boolean isRatingQuestion = plan.type(index) == SurveyPlan.QuestionType.RATING;
             boolean hasAnswer = false;
 
             if (isRatingQuestion) {
@@ -109,29 +129,39 @@ public class ResponseService {
                     // Validate rating range (0-5)
                     if (answerDto.ratingValue() < 0 || answerDto.ratingValue() > 5) {
                         throw new IllegalArgumentException(
-                                "Rating value must be between 0 and 5 for question: " + question.getQuestionText());
+                                "Rating value must be between 0 and 5 for question: " + plan.questionText(index));
                     }
                     hasAnswer = true;
                 }
             } else {
                 // For non-rating questions, check if answerValue is provided
                 if (answerDto.answerValue() != null && !answerDto.answerValue().trim().isEmpty()) {
+                    // Choice answers must be one of the options (questions without a
+                    // readable option list accept any value)
+                    Set<String> options = plan.options(index);
+                    if (plan.type(index).isChoice() && !options.isEmpty()
+                            && !options.contains(answerDto.answerValue().trim())) {
+                        throw new IllegalArgumentException(
+                                "Answer is not one of the options for question: " + plan.questionText(index));
+                    }
                     hasAnswer = true;
                 }
             }
 
             // Skip empty answers for non-required questions
             if (!hasAnswer) {
-                if (Boolean.TRUE.equals(question.getRequired())) {
+                if (plan.isRequired(index)) {
                     throw new IllegalArgumentException(
-                            "Answer is required for question: " + question.getQuestionText());
+                            "Answer is required for question: " + plan.questionText(index));
                 }
                 continue;
             }
 
             Answer answer = new Answer();
-            answer.setQuestion(question);
+            answer.setQuestion(questionRepository.getReferenceById(plan.questionId(index)));
+            answer.setSurveyId(surveyId);
             answer.setUser(user); // null for anonymous responses
+            answer.setResponse(surveyResponse);
 
             if (isRatingQuestion) {
                 answer.setRatingValue(answerDto.ratingValue());
@@ -141,52 +171,86 @@ public class ResponseService {
                 answer.setAnswerText(answerDto.answerValue().trim());
             }
 
-            answersRepository.save(answer);
+            answers.add(answer);
         }
 
-        // Send email notification to admin users after successful submission
+        return new PreparedSubmission(plan, user, surveyResponse, answers);
+    }
+
+    /**
+     * Persist prepared submissions in one transaction (one batched insert for all
+     * their answers)
+     */
+    @Transactional
+    public void persistSubmissions(List<PreparedSubmission> submissions) {
+        List<Answer> answers = new ArrayList<>();
+        for (PreparedSubmission submission : submissions) {
+            responsesRepository.save(submission.response());
+            answers.addAll(submission.answers());
+        }
+        answersRepository.saveAll(answers);
+
+        // Keep the daily rollup in step with these submissions
+        for (PreparedSubmission submission : submissions) {
+            surveyStatsService.recordSubmission(submission.plan().surveyId(), submission.response().getCreatedAt(),
+                    submission.answers().size(), submission.response().getCompletionTimeSeconds());
+            // The respondent's dashboard now shows this survey as completed
+            if (submission.user() != null) {
+                userDashboardCache.invalidate(submission.user().getId());
+            }
+        }
+    }
+
+    /**
+     * Send email notifications to admin users about persisted submissions
+     */
+    public void notifyAdmins(List<PreparedSubmission> submissions) {
         try {
             List<User> adminUsers = userRepository.findByRole("ADMIN");
-            String respondentInfo = user != null ? user.getName() + " (" + user.getEmail() + ")" : "Anonymous User";
-            emailService.sendSurveyResponseNotification(adminUsers, survey, respondentInfo);
+            for (PreparedSubmission submission : submissions) {
+                User user = submission.user();
+                String respondentInfo = user != null ? user.getName() + " (" + user.getEmail() + ")"
+                        : "Anonymous User";
+                SurveyPlan plan = submission.plan();
+                emailService.sendSurveyResponseNotification(adminUsers, plan.surveyId(), plan.title(),
+                        plan.description(), respondentInfo);
+            }
         } catch (Exception e) {
             // Log the error but don't fail the submission if email notification fails
             System.err.println("Failed to send email notification: " + e.getMessage());
         }
     }
 
-    private void validateRequiredQuestions(Map<Long, Question> questionsById, SubmitResponseRequest request) {
-        // Get all required question IDs
-        var requiredQuestionIds = questionsById.values().stream()
-                .filter(q -> Boolean.TRUE.equals(q.getRequired()))
-                .map(Question::getId)
-                .collect(Collectors.toSet());
-
-        // Get answered question IDs (with valid answers)
-        var answeredQuestionIds = request.answers().stream()
-                .filter(a -> {
-                    Question question = questionsById.get(a.questionId());
-                    if (question == null)
-                        return false;
-
-                    boolean isRatingQuestion = "RATING".equalsIgnoreCase(question.getType());
-                    if (isRatingQuestion) {
-                        return a.ratingValue() != null && a.ratingValue() >= 0 && a.ratingValue() <= 5;
-                    } else {
-                        return a.answerValue() != null && !a.answerValue().trim().isEmpty();
-                    }
-                })
-                .map(SubmitResponseRequest.AnswerDTO::questionId)
-                .collect(Collectors.toSet());
+    /**
+     * A validated submission: the Response and its Answers, not yet persisted
+     */
+    public record PreparedSubmission(SurveyPlan plan, User user, Response response, List<Answer> answers) {
+    }
+
+    private void validateRequiredQuestions(SurveyPlan plan, SubmitResponseRequest request) {
+        // Mark questions that have a valid answer
+        BitSet answered = new BitSet(plan.questionCount());
+        for (SubmitResponseRequest.AnswerDTO a : request.answers()) {
+            int index = a.questionId() != null ? plan.indexOf(a.questionId()) : -1;
+            if (index < 0)
+                continue;
+
+            boolean valid = plan.type(index) == SurveyPlan.QuestionType.RATING
+                    ? a.ratingValue() != null && a.ratingValue() >= 0 && a.ratingValue() <= 5
+                    : a.answerValue() != null && !a.answerValue().trim().isEmpty();
+            if (valid) {
+                answered.set(index);
+            }
+        }
 
         // Check if all required questions are answered
-        requiredQuestionIds.removeAll(answeredQuestionIds);
-        if (!requiredQuestionIds.isEmpty()) {
-            var missingQuestions = requiredQuestionIds.stream()
-                    .map(questionsById::get)
-                    .map(Question::getQuestionText)
+        BitSet missing = plan.requiredQuestions();
+        missing.andNot(answered);
+        if (!missing.isEmpty()) {
+            var missingQuestions = missing.stream()
+                    .mapToObj(plan::questionText)
                     .collect(Collectors.joining(", "));
             throw new IllegalArgumentException("Please answer all required questions: " + missingQuestions);
         }
     }
-}
\ No newline at end of file
+}
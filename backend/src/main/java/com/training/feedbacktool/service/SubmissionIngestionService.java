@@ -0,0 +1,186 @@
+package com.training.feedbacktool.service;
+
+import com.training.feedbacktool.dto.SubmitResponseRequest;
+import com.training.feedbacktool.service.ResponseService.PreparedSubmission;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Opt-in write-behind ingestion for public survey submissions. Submissions are
+ * validated on the request thread, queued in a bounded in-process queue and
+ * written by a single writer thread that commits many submissions per
+ * transaction. Queued submissions are lost if the process dies before they are
+ * written; the queue is drained on a normal shutdown.
+ */
+@Service
+public class SubmissionIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionIngestionService.class);
+
+    private final ResponseService responseService;
+
+    private final boolean enabled;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final int retryAfterSeconds;
+    private final int shutdownTimeoutSeconds;
+
+    private BlockingQueue<QueuedSubmission> queue;
+    private Thread writerThread;
+    private volatile boolean accepting;
+    // Offers hold the read lock; shutdown takes the write lock to stop accepting,
+    // so no offer can land after the writer's final drain
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+
+    public SubmissionIngestionService(ResponseService responseService,
+            @Value("${app.ingestion.async.enabled:false}") boolean enabled,
+            @Value("${app.ingestion.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.ingestion.batch-size:200}") int batchSize,
+            @Value("${app.ingestion.retry-after-seconds:5}") int retryAfterSeconds,
+            @Value("${app.ingestion.shutdown-timeout-seconds:30}") int shutdownTimeoutSeconds) {
+        this.responseService = responseService;
+        this.enabled = enabled;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.shutdownTimeoutSeconds = shutdownTimeoutSeconds;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        accepting = true;
+        writerThread = new Thread(this::runWriter, "submission-writer");
+        writerThread.start();
+        logger.info("Async submission ingestion enabled (capacity {}, batch size {})", queueCapacity, batchSize);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Validate a submission and queue it for writing. Validation failures are
+     * thrown exactly as in the synchronous path.
+     *
+     * @return the receipt id, or empty if the queue is full or shutting down
+     */
+    public Optional<String> enqueue(Long surveyId, SubmitResponseRequest request, String authToken) {
+        if (!accepting) {
+            return Optional.empty();
+        }
+        PreparedSubmission submission = responseService.prepareSubmission(surveyId, request, authToken);
+        String receiptId = UUID.randomUUID().toString();
+        acceptLock.readLock().lock();
+        try {
+            // Shutdown may have started while the submission was validated
+            if (!accepting || !queue.offer(new QueuedSubmission(receiptId, submission))) {
+                return Optional.empty();
+            }
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+        return Optional.of(receiptId);
+    }
+
+    private void runWriter() {
+        List<QueuedSubmission> batch = new ArrayList<>(batchSize);
+        while (accepting || !queue.isEmpty()) {
+            try {
+                QueuedSubmission first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                // Shutdown forced: drain whatever is left without waiting
+                queue.drainTo(batch);
+                writeBatch(batch);
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<QueuedSubmission> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<PreparedSubmission> submissions = batch.stream().map(QueuedSubmission::submission).toList();
+        try {
+            responseService.persistSubmissions(submissions);
+            responseService.notifyAdmins(submissions);
+        } catch (Exception e) {
+            // One bad submission must not lose the rest of the group: retry one by one
+            logger.warn("Group commit of {} submissions failed, retrying individually: {}", batch.size(),
+                    e.getMessage());
+            for (QueuedSubmission queued : batch) {
+                clearGeneratedIds(queued.submission());
+                try {
+                    responseService.persistSubmissions(List.of(queued.submission()));
+                    responseService.notifyAdmins(List.of(queued.submission()));
+                } catch (Exception single) {
+                    logger.error("Failed to write submission {}", queued.receiptId(), single);
+                }
+            }
+        }
+    }
+
+    // Ids handed out by the rolled-back attempt must not make the retry look like
+    // an update of existing rows
+    private void clearGeneratedIds(PreparedSubmission submission) {
+        submission.response().setId(null);
+        submission.answers().forEach(answer -> answer.setId(null));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        acceptLock.writeLock().lock();
+        try {
+            accepting = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(shutdownTimeoutSeconds));
+            if (writerThread.isAlive()) {
+                writerThread.interrupt();
+                writerThread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Async submission ingestion stopped");
+    }
+
+    private record QueuedSubmission(String receiptId, PreparedSubmission submission) {
+    }
+}
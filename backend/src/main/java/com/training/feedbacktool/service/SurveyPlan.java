@@ -0,0 +1,270 @@
+package com.training.feedbacktool.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.feedbacktool.entity.Question;
+import com.training.feedbacktool.entity.Survey;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable, precompiled view of a survey used to validate submissions without
+ * touching the survey tables. Questions are addressed by index; question ids are
+ * kept in a sorted long[] so lookups are a binary search over primitives.
+ * <p>
+ * The plan covers the survey's current version. Questions of retired versions
+ * are only kept as merge targets: a retired question maps to its current
+ * counterpart when both share a lineage, type and options, so results can be
+ * merged across compatible versions without reloading the question history.
+ */
+public final class SurveyPlan {
+
+    public enum QuestionType {
+        TEXT, LONG_TEXT, RATING, MULTIPLE_CHOICE, RADIO, DROPDOWN, OTHER;
+
+        /**
+         * Whether answers must be one of the question's options
+         */
+        public boolean isChoice() {
+            return this == MULTIPLE_CHOICE || this == RADIO || this == DROPDOWN;
+        }
+
+        public static QuestionType of(String type) {
+            if (type == null) {
+                return OTHER;
+            }
+            try {
+                return valueOf(type.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return OTHER;
+            }
+        }
+    }
+
+    private final Long surveyId;
+    private final int surveyVersion;
+    private final String title;
+    private final String description;
+    private final boolean active;
+    private final Instant endDate;
+
+    private final long[] questionIds;
+    private final QuestionType[] types;
+    private final String[] questionTexts;
+    private final List<Set<String>> options;
+    private final BitSet required;
+    private final Map<Long, Long> mergeTargets;
+    private final List<Set<Integer>> mergedVersions;
+
+    private SurveyPlan(Survey survey, List<Question> questions, List<Question> retiredQuestions,
+            ObjectMapper objectMapper) {
+        this.surveyId = survey.getId();
+        this.surveyVersion = survey.getCurrentVersion() != null ? survey.getCurrentVersion() : 1;
+        this.title = survey.getTitle();
+        this.description = survey.getDescription();
+        this.active = "ACTIVE".equalsIgnoreCase(survey.getStatus());
+        this.endDate = survey.getEndDate();
+
+        int n = questions.size();
+        this.questionIds = new long[n];
+        this.types = new QuestionType[n];
+        this.questionTexts = new String[n];
+        this.required = new BitSet(n);
+        Set<String>[] parsedOptions = newOptionArray(n);
+        for (int i = 0; i < n; i++) {
+            Question q = questions.get(i);
+            questionIds[i] = q.getId();
+            types[i] = QuestionType.of(q.getType());
+            questionTexts[i] = q.getQuestionText();
+            parsedOptions[i] = parseOptions(q.getOptionsJson(), objectMapper);
+            if (Boolean.TRUE.equals(q.getRequired())) {
+                required.set(i);
+            }
+        }
+        this.options = List.of(parsedOptions);
+        this.mergeTargets = compileMergeTargets(questions, retiredQuestions);
+        this.mergedVersions = compileMergedVersions(questions, retiredQuestions, mergeTargets);
+    }
+
+    /**
+     * Compile a plan from a survey whose questions are already loaded
+     */
+    public static SurveyPlan compile(Survey survey, ObjectMapper objectMapper) {
+        return compile(survey, List.of(), objectMapper);
+    }
+
+    /**
+     * Compile a plan from a survey whose current questions are already loaded,
+     * with the questions of its retired versions
+     */
+    public static SurveyPlan compile(Survey survey, List<Question> retiredQuestions, ObjectMapper objectMapper) {
+        List<Question> sorted = survey.getQuestions().stream()
+                .sorted(Comparator.comparing(Question::getId))
+                .toList();
+        return new SurveyPlan(survey, sorted, retiredQuestions, objectMapper);
+    }
+
+    // Retired question id -> current question id with the same lineage, type and options
+    private static Map<Long, Long> compileMergeTargets(List<Question> current, List<Question> retired) {
+        if (retired.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Question> currentByLineage = new HashMap<>();
+        for (Question question : current) {
+            currentByLineage.put(question.getLineageId(), question);
+        }
+        Map<Long, Long> targets = new HashMap<>();
+        for (Question question : retired) {
+            Question target = currentByLineage.get(question.getLineageId());
+            if (target != null && QuestionType.of(target.getType()) == QuestionType.of(question.getType())
+                    && Objects.equals(target.getOptionsJson(), question.getOptionsJson())) {
+                targets.put(question.getId(), target.getId());
+            }
+        }
+        return Map.copyOf(targets);
+    }
+
+    // Per current question: its own survey version and those of the retired
+    // questions merged into it
+    private static List<Set<Integer>> compileMergedVersions(List<Question> current, List<Question> retired,
+            Map<Long, Long> mergeTargets) {
+        Map<Long, Set<Integer>> versionsById = new HashMap<>();
+        for (Question question : current) {
+            versionsById.computeIfAbsent(question.getId(), id -> new TreeSet<>()).add(versionOf(question));
+        }
+        for (Question question : retired) {
+            Long target = mergeTargets.get(question.getId());
+            if (target != null) {
+                versionsById.get(target).add(versionOf(question));
+            }
+        }
+        return current.stream().map(question -> Set.copyOf(versionsById.get(question.getId()))).toList();
+    }
+
+    private static int versionOf(Question question) {
+        return question.getSurveyVersion() != null ? question.getSurveyVersion() : 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<String>[] newOptionArray(int n) {
+        return (Set<String>[]) new Set<?>[n];
+    }
+
+    // Options are stored as a JSON array of labels for choice questions; other
+    // shapes (e.g. the rating scale object) have no option set
+    private static Set<String> parseOptions(String optionsJson, ObjectMapper objectMapper) {
+        if (optionsJson == null || optionsJson.isBlank()) {
+            return Set.of();
+        }
+        try {
+            JsonNode node = objectMapper.readTree(optionsJson);
+            if (!node.isArray()) {
+                return Set.of();
+            }
+            Set<String> values = new LinkedHashSet<>();
+            node.forEach(option -> values.add(option.asText().trim()));
+            return Set.copyOf(values);
+        } catch (Exception e) {
+            return Set.of();
+        }
+    }
+
+    /**
+     * Index of a question in this plan, or -1 if it is not part of the survey
+     */
+    public int indexOf(long questionId) {
+        int index = Arrays.binarySearch(questionIds, questionId);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Current question an answer to the given question counts towards when
+     * merging versions: the question itself, its compatible current counterpart,
+     * or -1 for a retired question without one
+     */
+    public long mergedQuestionId(long questionId) {
+        if (indexOf(questionId) >= 0) {
+            return questionId;
+        }
+        Long target = mergeTargets.get(questionId);
+        return target != null ? target : -1L;
+    }
+
+    /**
+     * Survey versions whose responses could answer the current question at the
+     * given index when merging versions: its own and those of the compatible
+     * retired questions merged into it
+     */
+    public Set<Integer> mergedVersions(int index) {
+        return mergedVersions.get(index);
+    }
+
+    public int questionCount() {
+        return questionIds.length;
+    }
+
+    public long questionId(int index) {
+        return questionIds[index];
+    }
+
+    public QuestionType type(int index) {
+        return types[index];
+    }
+
+    public String questionText(int index) {
+        return questionTexts[index];
+    }
+
+    public Set<String> options(int index) {
+        return options.get(index);
+    }
+
+    public boolean isRequired(int index) {
+        return required.get(index);
+    }
+
+    /**
+     * Copy of the required-question bitset (indexes into this plan)
+     */
+    public BitSet requiredQuestions() {
+        return (BitSet) required.clone();
+    }
+
+    public Long surveyId() {
+        return surveyId;
+    }
+
+    /**
+     * Survey version new submissions are recorded against
+     */
+    public int surveyVersion() {
+        return surveyVersion;
+    }
+
+    public String title() {
+        return title;
+    }
+
+    public String description() {
+        return description;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public Instant endDate() {
+        return endDate;
+    }
+}
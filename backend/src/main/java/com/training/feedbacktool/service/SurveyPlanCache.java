@@ -0,0 +1,57 @@
+package com.training.feedbacktool.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.feedbacktool.entity.Question;
+import com.training.feedbacktool.entity.Survey;
+import com.training.feedbacktool.repository.QuestionRepository;
+import com.training.feedbacktool.repository.SurveyRepository;
+import com.training.feedbacktool.util.InvalidatingLruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Bounded LRU cache of compiled {@link SurveyPlan}s by survey id. Entries are dropped when
+ * a survey is updated or deleted (after the transaction commits). Retired
+ * questions are only read for surveys past their first version.
+ */
+@Service
+public class SurveyPlanCache {
+
+    private final SurveyRepository surveyRepository;
+    private final QuestionRepository questionRepository;
+    private final ObjectMapper objectMapper;
+    private final InvalidatingLruCache<Long, SurveyPlan> plans;
+
+    public SurveyPlanCache(SurveyRepository surveyRepository, QuestionRepository questionRepository,
+            ObjectMapper objectMapper, @Value("${app.survey-plan.cache.max-size:1000}") int maxSize) {
+        this.surveyRepository = surveyRepository;
+        this.questionRepository = questionRepository;
+        this.objectMapper = objectMapper;
+        this.plans = new InvalidatingLruCache<>(maxSize);
+    }
+
+    /**
+     * Get the plan for a survey, compiling it on first use
+     */
+    public SurveyPlan getPlan(Long surveyId) {
+        return plans.get(surveyId, () -> compile(surveyId));
+    }
+
+    /**
+     * Drop a survey's plan once the current transaction (if any) commits
+     */
+    public void invalidate(Long surveyId) {
+        plans.invalidate(surveyId);
+    }
+
+    private SurveyPlan compile(Long surveyId) {
+        Survey survey = surveyRepository.findByIdWithQuestions(surveyId)
+                .orElseThrow(() -> new IllegalArgumentException("Survey not found with id: " + surveyId));
+        List<Question> retired = survey.getCurrentVersion() != null && survey.getCurrentVersion() > 1
+                ? questionRepository.findRetiredBySurveyId(surveyId)
+                : List.of();
+        return SurveyPlan.compile(survey, retired, objectMapper);
+    }
+}
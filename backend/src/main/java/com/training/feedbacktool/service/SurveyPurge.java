@@ -0,0 +1,81 @@
+package com.training.feedbacktool.service;
+
+import com.training.feedbacktool.dto.SurveyPurgeStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one survey purge. Written by the purge worker and read by
+ * status requests.
+ */
+class SurveyPurge {
+
+    enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final Long surveyId;
+    private final Instant queuedAt = Instant.now();
+    private final AtomicLong answersDeleted = new AtomicLong();
+    private final AtomicLong responsesDeleted = new AtomicLong();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile long answersTotal;
+    private volatile long responsesTotal;
+    private volatile String error;
+    private volatile Instant startedAt;
+    private volatile Instant completedAt;
+
+    SurveyPurge(Long surveyId) {
+        this.surveyId = surveyId;
+    }
+
+    Long getSurveyId() {
+        return surveyId;
+    }
+
+    Status getStatus() {
+        return status;
+    }
+
+    void markRunning(long answersTotal, long responsesTotal) {
+        this.answersTotal = answersTotal;
+        this.responsesTotal = responsesTotal;
+        this.startedAt = Instant.now();
+        this.status = Status.RUNNING;
+    }
+
+    void addAnswersDeleted(long count) {
+        answersDeleted.addAndGet(count);
+    }
+
+    void addResponsesDeleted(long count) {
+        responsesDeleted.addAndGet(count);
+    }
+
+    void markCompleted() {
+        this.completedAt = Instant.now();
+        this.status = Status.COMPLETED;
+    }
+
+    void markFailed(String error) {
+        this.error = error;
+        this.completedAt = Instant.now();
+        this.status = Status.FAILED;
+    }
+
+    boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    boolean isExpired(Instant now, Duration ttl) {
+        return isFinished() && completedAt.plus(ttl).isBefore(now);
+    }
+
+    SurveyPurgeStatus toStatus() {
+        return new SurveyPurgeStatus(surveyId, status.name(), answersDeleted.get(), answersTotal,
+                responsesDeleted.get(), responsesTotal, error, queuedAt, startedAt, completedAt);
+    }
+}
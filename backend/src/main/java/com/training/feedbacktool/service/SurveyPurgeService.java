@@ -0,0 +1,192 @@
+package com.training.feedbacktool.service;
+
+import com.training.feedbacktool.dto.SurveyPurgeStatus;
+import com.training.feedbacktool.repository.AnswersRepository;
+import com.training.feedbacktool.repository.QuestionRepository;
+import com.training.feedbacktool.repository.ResponsesRepository;
+import com.training.feedbacktool.repository.SurveyDailyStatsRepository;
+import com.training.feedbacktool.repository.SurveyRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Physically removes tombstoned surveys in the background. Answers and
+ * responses are deleted in bounded id-range chunks, one short transaction each,
+ * so a large survey never holds locks long enough to stall submissions to
+ * other surveys; questions, rollups and the survey row go last. Purges run one
+ * at a time. Progress is kept in memory; tombstones left by a restart are
+ * picked up again by a periodic sweep.
+ */
+@Service
+public class SurveyPurgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SurveyPurgeService.class);
+    private static final Duration STATUS_TTL = Duration.ofHours(1);
+
+    private final SurveyRepository surveyRepository;
+    private final AnswersRepository answersRepository;
+    private final ResponsesRepository responsesRepository;
+    private final QuestionRepository questionRepository;
+    private final SurveyDailyStatsRepository surveyDailyStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+    // Pause between chunks so other writers get the lock in between
+    private final long pauseMillis;
+
+    private ExecutorService executor;
+    private final Map<Long, SurveyPurge> purges = new ConcurrentHashMap<>();
+
+    public SurveyPurgeService(SurveyRepository surveyRepository, AnswersRepository answersRepository,
+            ResponsesRepository responsesRepository, QuestionRepository questionRepository,
+            SurveyDailyStatsRepository surveyDailyStatsRepository, PlatformTransactionManager transactionManager,
+            @Value("${app.survey-purge.chunk-size:1000}") int chunkSize,
+            @Value("${app.survey-purge.pause-millis:20}") long pauseMillis) {
+        this.surveyRepository = surveyRepository;
+        this.answersRepository = answersRepository;
+        this.responsesRepository = responsesRepository;
+        this.questionRepository = questionRepository;
+        this.surveyDailyStatsRepository = surveyDailyStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "survey-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue the purge of a tombstoned survey once the current transaction (if
+     * any) commits. A survey already queued or being purged is not queued again.
+     */
+    public void schedule(Long surveyId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(surveyId);
+                }
+            });
+        } else {
+            enqueue(surveyId);
+        }
+    }
+
+    public Optional<SurveyPurgeStatus> getStatus(Long surveyId) {
+        return Optional.ofNullable(purges.get(surveyId)).map(SurveyPurge::toStatus);
+    }
+
+    /**
+     * Re-queue tombstones whose purge failed or was lost with a restart, and
+     * drop old finished statuses
+     */
+    @Scheduled(fixedDelayString = "${app.survey-purge.sweep-interval-ms:600000}", initialDelay = 60000)
+    public void resumePendingPurges() {
+        try {
+            Instant now = Instant.now();
+            purges.values().removeIf(purge -> purge.isExpired(now, STATUS_TTL));
+            for (Long surveyId : surveyRepository.findDeletedIds()) {
+                enqueue(surveyId);
+            }
+        } catch (Exception e) {
+            logger.error("Error while resuming survey purges", e);
+        }
+    }
+
+    private void enqueue(Long surveyId) {
+        SurveyPurge purge = new SurveyPurge(surveyId);
+        SurveyPurge previous = purges.compute(surveyId,
+                (id, existing) -> existing != null && !existing.isFinished() ? existing : purge);
+        if (previous != purge) {
+            return;
+        }
+        try {
+            executor.execute(() -> run(purge));
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the sweep picks the tombstone up after a restart
+            purges.remove(surveyId, purge);
+        }
+    }
+
+    private void run(SurveyPurge purge) {
+        Long surveyId = purge.getSurveyId();
+        try {
+            long answersTotal = answersRepository.countBySurveyId(surveyId);
+            long responsesTotal = responsesRepository.countBySurveyId(surveyId);
+            purge.markRunning(answersTotal, responsesTotal);
+            logger.info("Purging survey {} ({} answers, {} responses)", surveyId, answersTotal, responsesTotal);
+
+            // Answers first: they reference responses and questions
+            long afterId = 0;
+            Long toId;
+            while ((toId = answersRepository.findPurgeChunkEnd(surveyId, afterId, chunkSize)) != null) {
+                long from = afterId;
+                long to = toId;
+                Integer deleted = transactionTemplate
+                        .execute(status -> answersRepository.deletePurgeChunk(surveyId, from, to));
+                purge.addAnswersDeleted(deleted != null ? deleted : 0);
+                afterId = to;
+                pause();
+            }
+
+            afterId = 0;
+            while ((toId = responsesRepository.findPurgeChunkEnd(surveyId, afterId, chunkSize)) != null) {
+                long from = afterId;
+                long to = toId;
+                Integer deleted = transactionTemplate
+                        .execute(status -> responsesRepository.deletePurgeChunk(surveyId, from, to));
+                purge.addResponsesDeleted(deleted != null ? deleted : 0);
+                afterId = to;
+                pause();
+            }
+
+            // Rollups may have been re-created by submissions still in flight at deletion
+            transactionTemplate.executeWithoutResult(status -> {
+                surveyDailyStatsRepository.deleteBySurveyId(surveyId);
+                questionRepository.purgeBySurveyId(surveyId);
+                surveyRepository.purgeDeleted(surveyId);
+            });
+            purge.markCompleted();
+            logger.info("Purged survey {}", surveyId);
+        } catch (Exception e) {
+            // A late submission can still reference the survey; the next sweep retries
+            logger.error("Purge of survey {} failed", surveyId, e);
+            purge.markFailed(e.getMessage());
+        }
+    }
+
+    private void pause() throws InterruptedException {
+        if (pauseMillis > 0) {
+            Thread.sleep(pauseMillis);
+        }
+    }
+}
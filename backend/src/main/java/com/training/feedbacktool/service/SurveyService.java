@@ -1,11 +1,16 @@
 package com.training.feedbacktool.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.feedbacktool.common.ApiResponse;
 import com.training.feedbacktool.dto.AdminSurveyResponse;
 import com.training.feedbacktool.dto.CreateQuestionRequest;
 import com.training.feedbacktool.dto.CreateSurveyRequest;
 import com.training.feedbacktool.dto.PublicSurveyResponse;
 import com.training.feedbacktool.dto.QuestionResponse;
 import com.training.feedbacktool.dto.SubmitResponseRequest;
+import com.training.feedbacktool.dto.SurveyCountsRow;
+import com.training.feedbacktool.dto.SurveyPurgeStatus;
 import com.training.feedbacktool.dto.SurveyResponse;
 import com.training.feedbacktool.dto.SurveyResultsResponse;
 import com.training.feedbacktool.dto.UpdateSurveyRequest;
@@ -15,13 +20,22 @@ import com.training.feedbacktool.entity.Response;
 import com.training.feedbacktool.entity.Survey;
 import com.training.feedbacktool.entity.User;
 import com.training.feedbacktool.repository.AnswersRepository;
+import com.training.feedbacktool.repository.QuestionRepository;
 import com.training.feedbacktool.repository.ResponsesRepository;
+import com.training.feedbacktool.repository.SurveyDailyStatsRepository;
 import com.training.feedbacktool.repository.SurveyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.lang.reflect.Method;
-import java.time.Duration;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -32,12 +46,32 @@ public class SurveyService {
     private final SurveyRepository repo;
     private final ResponsesRepository responsesRepository;
     private final AnswersRepository answersRepository;
+    private final QuestionRepository questionRepository;
+    private final SurveyDailyStatsRepository surveyDailyStatsRepository;
+    private final SurveyPurgeService surveyPurgeService;
+    private final SurveyPlanCache surveyPlanCache;
+    private final UserDashboardCache userDashboardCache;
+    private final PublicSurveyCache publicSurveyCache;
+    private final ObjectMapper objectMapper;
+    private final int unpagedListMaxSize;
 
     public SurveyService(SurveyRepository repo, ResponsesRepository responsesRepository,
-            AnswersRepository answersRepository) {
+            AnswersRepository answersRepository, QuestionRepository questionRepository,
+            SurveyDailyStatsRepository surveyDailyStatsRepository, SurveyPurgeService surveyPurgeService,
+            SurveyPlanCache surveyPlanCache, UserDashboardCache userDashboardCache,
+            PublicSurveyCache publicSurveyCache, ObjectMapper objectMapper,
+            @Value("${app.survey-list.unpaged-max-size:500}") int unpagedListMaxSize) {
         this.repo = repo;
         this.responsesRepository = responsesRepository;
         this.answersRepository = answersRepository;
+        this.questionRepository = questionRepository;
+        this.surveyDailyStatsRepository = surveyDailyStatsRepository;
+        this.surveyPurgeService = surveyPurgeService;
+        this.surveyPlanCache = surveyPlanCache;
+        this.userDashboardCache = userDashboardCache;
+        this.publicSurveyCache = publicSurveyCache;
+        this.objectMapper = objectMapper;
+        this.unpagedListMaxSize = unpagedListMaxSize;
     }
 
     @Transactional
@@ -68,6 +102,12 @@ public class SurveyService {
         }
 
         Survey saved = repo.save(s);
+
+        // Dashboards list active surveys
+        if ("ACTIVE".equals(saved.getStatus())) {
+            userDashboardCache.invalidateAll();
+        }
+
         return new SurveyResponse(
                 saved.getId(),
                 saved.getTitle(),
@@ -91,39 +131,56 @@ public class SurveyService {
                 .collect(Collectors.toList());
     }
 
+    /** Survey fields the admin list can be sorted by */
+    private static final Set<String> ADMIN_SORT_FIELDS = Set.of("id", "title", "status", "createdAt", "updatedAt",
+            "endDate");
+
+    /**
+     * Admin survey list for callers that do not page: the most recent surveys,
+     * newest first, capped so one request never aggregates the statistics of
+     * every survey
+     */
+    @Transactional(readOnly = true)
+    public Page<AdminSurveyResponse> listRecentWithStats() {
+        return listWithStats(PageRequest.of(0, unpagedListMaxSize, Sort.by(Sort.Direction.DESC, "createdAt")));
+    }
+
+    /**
+     * One page of the admin survey list, sorted in the database. Question and
+     * response counts and completion figures for the page come from a single
+     * grouped query.
+     */
     @Transactional(readOnly = true)
-    public List<AdminSurveyResponse> listAllWithStats() {
-        List<Survey> surveys = repo.findAll();
+    public Page<AdminSurveyResponse> listWithStats(Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!ADMIN_SORT_FIELDS.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort surveys by: " + order.getProperty());
+            }
+        }
+        Page<Survey> page = repo.findAll(pageable);
+        return new PageImpl<>(toAdminResponses(page.getContent()), pageable, page.getTotalElements());
+    }
+
+    private List<AdminSurveyResponse> toAdminResponses(List<Survey> surveys) {
+        if (surveys.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, SurveyCountsRow> counts = new HashMap<>();
+        for (Object[] row : repo.findListStatsBySurveyIds(surveys.stream().map(Survey::getId).toList())) {
+            SurveyCountsRow stats = new SurveyCountsRow(
+                    ((Number) row[0]).longValue(),
+                    ((Number) row[1]).longValue(),
+                    ((Number) row[2]).longValue(),
+                    ((Number) row[3]).longValue(),
+                    row[4] != null ? ((Number) row[4]).doubleValue() : null);
+            counts.put(stats.surveyId(), stats);
+        }
 
         return surveys.stream()
                 .map(survey -> {
-                    // Get question count
-                    Long questionCount = repo.countQuestionsBySurveyId(survey.getId());
-
-                    // Get total responses (each Response represents a complete survey submission)
-                    List<Response> responses = responsesRepository.findBySurveyId(survey.getId());
-                    int totalResponses = responses.size();
-
-                    // Calculate completion rate (mock calculation - in real scenario you'd need
-                    // more complex logic)
-                    int completionRate = 0;
-                    if (questionCount != null && questionCount > 0 && totalResponses > 0) {
-                        // Simple calculation: assume if someone answered any question, they completed
-                        // the survey
-                        // In reality, you'd calculate this based on required questions vs answered
-                        // questions
-                        completionRate = Math.min(100, (totalResponses * 100) / Math.max(1, totalResponses));
-
-                        // More realistic approach: vary completion rate based on survey status and
-                        // responses
-                        if ("ACTIVE".equals(survey.getStatus())) {
-                            completionRate = Math.min(95, 60 + (totalResponses % 36)); // 60-95% for active surveys
-                        } else if ("INACTIVE".equals(survey.getStatus())) {
-                            completionRate = Math.min(80, 40 + (totalResponses % 41)); // 40-80% for inactive surveys
-                        } else {
-                            completionRate = 0; // 0% for draft surveys
-                        }
-                    }
+                    SurveyCountsRow row = counts.get(survey.getId());
+                    int questionCount = row != null ? (int) row.questionCount() : 0;
+                    int totalResponses = row != null ? (int) row.responseCount() : 0;
 
                     return new AdminSurveyResponse(
                             survey.getId(),
@@ -133,13 +190,24 @@ public class SurveyService {
                             survey.getCreatedAt(),
                             survey.getUpdatedAt(),
                             survey.getEndDate(),
-                            questionCount != null ? questionCount.intValue() : 0,
+                            questionCount,
                             totalResponses,
-                            completionRate);
+                            row != null ? completionRate(row) : 0,
+                            row != null && row.averageAnsweredRatio() != null
+                                    ? (int) Math.round(row.averageAnsweredRatio() * 100)
+                                    : 0);
                 })
                 .collect(Collectors.toList());
     }
 
+    // Share of submissions that answered every required question, in percent
+    private static int completionRate(SurveyCountsRow stats) {
+        if (stats.responseCount() == 0) {
+            return 0;
+        }
+        return (int) Math.round(stats.completeCount() * 100.0 / stats.responseCount());
+    }
+
     public PublicSurveyResponse findByIdWithQuestions(Long id) {
         Survey survey = repo.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Survey not found with id: " + id));
@@ -169,19 +237,39 @@ public class SurveyService {
         return findByIdWithQuestions(id);
     }
 
+    /**
+     * Public survey response serialized once per survey version. The ETag is
+     * the survey id and a SHA-256 digest of the bytes, so it changes whenever
+     * the body does.
+     */
+    public PublicSurveyCache.Payload getPublicSurveyPayload(Long id) {
+        return publicSurveyCache.get(id, () -> {
+            PublicSurveyResponse survey = findByIdWithQuestions(id);
+            try {
+                byte[] json = objectMapper.writeValueAsBytes(
+                        ApiResponse.success(survey, "Survey retrieved successfully"));
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+                String etag = "\"" + id + "-" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+                return new PublicSurveyCache.Payload(json, etag);
+            } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Failed to serialize survey " + id, e);
+            }
+        });
+    }
+
     @Transactional
     public SurveyResponse updateSurvey(Long id, UpdateSurveyRequest req) {
         Survey existingSurvey = repo.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Survey not found with id: " + id));
 
-        // Check if survey has responses - if so, only allow limited updates
-        List<Answer> existingAnswers = answersRepository.findBySurveyId(id);
-        boolean hasResponses = !existingAnswers.isEmpty();
+        boolean wasActive = "ACTIVE".equals(existingSurvey.getStatus());
+
+        // Check if survey has responses - if so, questions are versioned instead of edited
+        boolean hasResponses = answersRepository.existsBySurveyId(id);
 
         if (hasResponses) {
-            // If survey has responses, only allow updating title, description, end date and
-            // status
-            // but NOT questions
+            // If survey has responses, title, description, end date and status are
+            // updated in place
             existingSurvey.setTitle(req.title().trim());
             existingSurvey.setDescription(req.description());
             existingSurvey.setEndDate(req.endDate());
@@ -191,17 +279,11 @@ public class SurveyService {
             String newStatus = Boolean.TRUE.equals(req.active()) ? "ACTIVE" : "INACTIVE";
             existingSurvey.setStatus(newStatus);
 
-            // Check if questions are being modified when there are responses
-            if (req.questions() != null && !req.questions().isEmpty()) {
-                // Compare new questions with existing questions to see if there are actual
-                // changes
-                List<Question> existingQuestions = existingSurvey.getQuestions();
-                boolean questionsChanged = areQuestionsModified(existingQuestions, req.questions());
-
-                if (questionsChanged) {
-                    throw new IllegalArgumentException(
-                            "Cannot modify questions on a survey that already has responses. You can only update title, description, end date, and status.");
-                }
+            // Changed questions become a new survey version; existing answers stay
+            // bound to the version they answered
+            if (req.questions() != null && !req.questions().isEmpty()
+                    && areQuestionsModified(existingSurvey.getQuestions(), req.questions())) {
+                createQuestionVersion(existingSurvey, req.questions());
             }
         } else {
             // If no responses, allow full update (original logic)
@@ -219,26 +301,25 @@ public class SurveyService {
             existingSurvey.setStatus(Boolean.TRUE.equals(req.active()) ? "ACTIVE" : "DRAFT");
             existingSurvey.setEndDate(req.endDate());
 
-            // Handle questions update - clear existing questions and add new ones
-            existingSurvey.getQuestions().clear();
-
-            if (req.questions() != null && !req.questions().isEmpty()) {
-                List<Question> questions = new ArrayList<>();
-                for (CreateQuestionRequest qReq : req.questions()) {
-                    Question q = new Question();
-                    q.setType(qReq.type());
-                    q.setQuestionText(qReq.questionText());
-                    q.setOptionsJson(qReq.optionsJson());
-                    q.setOrderNumber(qReq.orderNumber());
-                    q.setRequired(qReq.required());
-                    q.setSurvey(existingSurvey);
-                    questions.add(q);
-                }
-                existingSurvey.setQuestions(questions);
-            }
+            // Apply only the question changes (matched updates, new inserts, leftover deletes)
+            applyQuestionChanges(existingSurvey, req.questions() != null ? req.questions() : List.of());
         }
 
+        // Question-only edits do not dirty the survey row, so bump updatedAt
+        // explicitly; it versions exports and cached survey data
+        existingSurvey.setUpdatedAt(Instant.now());
+
         Survey saved = repo.save(existingSurvey);
+
+        // Recompile the submission plan and public payload on next use
+        surveyPlanCache.invalidate(id);
+        publicSurveyCache.invalidate(id);
+
+        // Dashboards list active surveys: rebuild them when this survey was or is one
+        if (wasActive || "ACTIVE".equals(saved.getStatus())) {
+            userDashboardCache.invalidateAll();
+        }
+
         return new SurveyResponse(
                 saved.getId(),
                 saved.getTitle(),
@@ -249,6 +330,104 @@ public class SurveyService {
                 saved.getEndDate());
     }
 
+    /**
+     * Diff the requested questions against the survey's current ones. Matched
+     * questions are updated in place (Hibernate only writes changed rows),
+     * unmatched requests are inserted and leftover questions deleted by orphan
+     * removal. Question ids stay stable across edits.
+     */
+    static void applyQuestionChanges(Survey survey, List<CreateQuestionRequest> requested) {
+        Map<CreateQuestionRequest, Question> matches = matchQuestions(survey.getQuestions(), requested);
+
+        Set<Question> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+        matched.addAll(matches.values());
+        survey.getQuestions().removeIf(question -> !matched.contains(question));
+
+        for (CreateQuestionRequest qReq : requested) {
+            Question question = matches.get(qReq);
+            if (question == null) {
+                question = new Question();
+                question.setSurvey(survey);
+                question.setSurveyVersion(survey.getCurrentVersion());
+                survey.getQuestions().add(question);
+            }
+            applyQuestionFields(question, qReq);
+        }
+    }
+
+    /**
+     * Copy-on-write edit for a survey that already has responses: the current
+     * questions are retired rather than changed, and the requested questions are
+     * inserted as the next survey version. A new question continues the lineage
+     * of the question it matched, which is what results merge versions by.
+     */
+    static void createQuestionVersion(Survey survey, List<CreateQuestionRequest> requested) {
+        Map<CreateQuestionRequest, Question> matches = matchQuestions(survey.getQuestions(), requested);
+        int version = survey.getCurrentVersion() + 1;
+
+        // Retired questions stay in the loaded collection (removing them would
+        // trigger orphan removal); reloads filter them out
+        for (Question question : survey.getQuestions()) {
+            question.setRetired(true);
+        }
+
+        for (CreateQuestionRequest qReq : requested) {
+            Question question = new Question();
+            question.setSurvey(survey);
+            question.setSurveyVersion(version);
+            Question previous = matches.get(qReq);
+            if (previous != null) {
+                question.setOriginQuestionId(previous.getLineageId());
+            }
+            applyQuestionFields(question, qReq);
+            survey.getQuestions().add(question);
+        }
+        survey.setCurrentVersion(version);
+    }
+
+    /**
+     * Match requested questions to existing ones by id first, so reordered
+     * questions keep their identity, then by order number among those left.
+     * Unmatched requests are absent from the result.
+     */
+    static Map<CreateQuestionRequest, Question> matchQuestions(List<Question> existing,
+            List<CreateQuestionRequest> requested) {
+        Map<Long, Question> unmatched = new LinkedHashMap<>();
+        for (Question question : existing) {
+            unmatched.put(question.getId(), question);
+        }
+
+        Map<CreateQuestionRequest, Question> matches = new IdentityHashMap<>();
+        for (CreateQuestionRequest qReq : requested) {
+            Question question = qReq.id() != null ? unmatched.remove(qReq.id()) : null;
+            if (question != null) {
+                matches.put(qReq, question);
+            }
+        }
+
+        Map<Integer, Question> unmatchedByOrder = new HashMap<>();
+        for (Question question : unmatched.values()) {
+            unmatchedByOrder.putIfAbsent(question.getOrderNumber(), question);
+        }
+        for (CreateQuestionRequest qReq : requested) {
+            if (!matches.containsKey(qReq)) {
+                Question question = unmatchedByOrder.remove(qReq.orderNumber());
+                if (question != null) {
+                    matches.put(qReq, question);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static void applyQuestionFields(Question question, CreateQuestionRequest qReq) {
+        question.setType(qReq.type());
+        question.setQuestionText(qReq.questionText());
+        question.setOptionsJson(qReq.optionsJson());
+        question.setOrderNumber(qReq.orderNumber());
+        question.setRequired(qReq.required());
+    }
+
     /**
      * Helper method to check if questions have been modified
      */
@@ -292,19 +471,35 @@ public class SurveyService {
         return false;
     }
 
+    /**
+     * Delete a survey: it is tombstoned and hidden from every read at once,
+     * and its answers, responses and questions are purged in the background
+     * (see {@link SurveyPurgeService})
+     */
     @Transactional
     public void deleteSurvey(Long id) {
         Survey survey = repo.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Survey not found with id: " + id));
 
-        // Delete all associated answers first
-        answersRepository.deleteBySurveyId(id);
+        repo.markDeleted(id, Instant.now());
 
-        // Delete all associated responses
-        responsesRepository.deleteBySurveyId(id);
+        // Drop the survey's daily rollups now so global analytics stop counting it
+        surveyDailyStatsRepository.deleteBySurveyId(id);
 
-        // Finally delete the survey (this will also delete questions due to cascade)
-        repo.delete(survey);
+        surveyPlanCache.invalidate(id);
+        publicSurveyCache.invalidate(id);
+        if ("ACTIVE".equals(survey.getStatus())) {
+            userDashboardCache.invalidateAll();
+        }
+        surveyPurgeService.schedule(id);
+    }
+
+    /**
+     * Progress of the purge following a survey's deletion
+     */
+    public SurveyPurgeStatus getDeletionStatus(Long id) {
+        return surveyPurgeService.getStatus(id)
+                .orElseThrow(() -> new IllegalArgumentException("No deletion in progress for survey id: " + id));
     }
 
     // ---------- submission ----------
@@ -334,6 +529,7 @@ public class SurveyService {
             applyQuestionRef(r, question); // tries setQuestion(Question) or setQuestionId(Long) (or setQid)
 
             applyAnswerValue(r, a.answerValue()); // tries setAnswerValue(String) or setAnswer(String)
+            r.setSurveyVersion(survey.getCurrentVersion());
 
             responsesRepository.save(r);
         }
@@ -423,48 +619,62 @@ public class SurveyService {
     // New method to get comprehensive survey results
     @Transactional(readOnly = true)
     public SurveyResultsResponse getSurveyResults(Long surveyId) {
+        return getSurveyResults(surveyId, null);
+    }
+
+    /**
+     * Survey results for one version, or merged across versions when the
+     * version is null: answers to a retired question then count towards the
+     * current question it is compatible with (see {@link SurveyPlan})
+     */
+    @Transactional(readOnly = true)
+    public SurveyResultsResponse getSurveyResults(Long surveyId, Integer version) {
         // Get the survey
         Survey survey = repo.findById(surveyId)
                 .orElseThrow(() -> new IllegalArgumentException("Survey not found with id: " + surveyId));
 
-        // Get all answers for this survey
-        List<Answer> allAnswers = answersRepository.findBySurveyId(surveyId);
+        int currentVersion = survey.getCurrentVersion() != null ? survey.getCurrentVersion() : 1;
+        if (version != null && (version < 1 || version > currentVersion)) {
+            throw new IllegalStateException("Survey " + surveyId + " has no version " + version);
+        }
 
-        // Get all responses for this survey (each Response represents a complete survey
-        // submission)
-        List<Response> allResponses = responsesRepository.findBySurveyId(surveyId);
+        // Questions reported on: the current ones unless an older version was requested
+        List<Question> questions = version == null || version == currentVersion
+                ? survey.getQuestions()
+                : questionRepository.findBySurveyIdAndVersion(surveyId, version);
 
-        // Group answers by response (each Response is a separate submission)
-        Map<String, List<Answer>> answersByRespondent = new HashMap<>();
-        Set<User> uniqueUsers = new HashSet<>();
+        // Merging needs the retired-to-current question mapping held by the cached plan
+        SurveyPlan plan = version == null && currentVersion > 1 ? surveyPlanCache.getPlan(surveyId) : null;
 
-        for (Response response : allResponses) {
-            String respondentId = "response_" + response.getId();
+        // Get all answers for this survey (question and user fetched in the same query)
+        List<Answer> allAnswers = answersRepository.findBySurveyIdWithDetails(surveyId);
 
-            // Get all answers for this specific response
-            List<Answer> responseAnswers = allAnswers.stream()
-                    .filter(answer -> {
-                        // Match answers to response by user and time proximity (within 5 minutes)
-                        if (response.getUser() != null && answer.getUser() != null) {
-                            // For authenticated users, match by user and time
-                            return response.getUser().getId().equals(answer.getUser().getId()) &&
-                                    Math.abs(Duration.between(response.getCreatedAt(), answer.getCreatedAt())
-                                            .toMinutes()) <= 5;
-                        } else if (response.getUser() == null && answer.getUser() == null) {
-                            // For anonymous users, match by time proximity (within 5 minutes)
-                            return Math.abs(
-                                    Duration.between(response.getCreatedAt(), answer.getCreatedAt()).toMinutes()) <= 5;
-                        }
-                        return false;
-                    })
+        // Get all responses for this survey (each Response represents a complete survey
+        // submission)
+        List<Response> allResponses = responsesRepository.findBySurveyIdWithUser(surveyId);
+
+        if (version != null) {
+            allAnswers = allAnswers.stream()
+                    .filter(answer -> version.equals(answer.getQuestion().getSurveyVersion()))
+                    .collect(Collectors.toList());
+            allResponses = allResponses.stream()
+                    .filter(response -> version.equals(response.getSurveyVersion()))
                     .collect(Collectors.toList());
+        }
 
-            if (!responseAnswers.isEmpty()) {
-                answersByRespondent.put(respondentId, responseAnswers);
-                if (response.getUser() != null) {
-                    uniqueUsers.add(response.getUser());
-                }
+        // Group answers by response and by (merged) question in a single pass
+        Map<Long, List<Answer>> answersByResponseId = new HashMap<>();
+        Map<Long, List<Answer>> answersByQuestionId = new HashMap<>();
+        for (Answer answer : allAnswers) {
+            if (answer.getResponse() != null) {
+                answersByResponseId.computeIfAbsent(answer.getResponse().getId(), k -> new ArrayList<>())
+                        .add(answer);
             }
+            long questionId = plan != null
+                    ? plan.mergedQuestionId(answer.getQuestion().getId())
+                    : answer.getQuestion().getId();
+            answersByQuestionId.computeIfAbsent(questionId, k -> new ArrayList<>())
+                    .add(answer);
         }
 
         // Create respondent DTOs based on Response entities
@@ -472,7 +682,7 @@ public class SurveyService {
 
         for (Response response : allResponses) {
             String respondentId = "response_" + response.getId();
-            List<Answer> responseAnswers = answersByRespondent.getOrDefault(respondentId, new ArrayList<>());
+            List<Answer> responseAnswers = answersByResponseId.getOrDefault(response.getId(), List.of());
 
             User user = response.getUser();
             boolean isAnonymous = user == null;
@@ -506,14 +716,17 @@ public class SurveyService {
         // Create question results with advanced analytics
         List<SurveyResultsResponse.QuestionResultDTO> questionResults = new ArrayList<>();
         int totalRespondents = allResponses.size(); // Count based on Response entities, not grouped respondents
+        Map<Integer, Long> responsesByVersion = plan != null ? countByVersion(allResponses) : Map.of();
 
-        for (Question question : survey.getQuestions()) {
-            List<Answer> questionAnswers = allAnswers.stream()
-                    .filter(answer -> answer.getQuestion().getId().equals(question.getId()))
-                    .collect(Collectors.toList());
+        for (Question question : questions) {
+            List<Answer> questionAnswers = answersByQuestionId.getOrDefault(question.getId(), List.of());
 
-            // Calculate completion rate
-            double completionRate = totalRespondents > 0 ? (double) questionAnswers.size() / totalRespondents * 100
+            // Calculate completion rate; merged questions only count the responses of
+            // the versions they were asked in
+            long askedRespondents = plan != null
+                    ? respondentsAsked(plan, question.getId(), responsesByVersion, totalRespondents)
+                    : totalRespondents;
+            double completionRate = askedRespondents > 0 ? (double) questionAnswers.size() / askedRespondents * 100
                     : 0.0;
 
             // Generate analytics based on question type
@@ -523,8 +736,10 @@ public class SurveyService {
             List<SurveyResultsResponse.AnswerSummaryDTO> answerSummaries = questionAnswers.stream()
                     .map(answer -> {
                         User user = answer.getUser();
-                        String respondentId = user != null ? "user_" + user.getId()
-                                : "anonymous_" + answer.getCreatedAt().toString().substring(0, 16);
+                        String respondentId = answer.getResponse() != null
+                                ? "response_" + answer.getResponse().getId()
+                                : user != null ? "user_" + user.getId()
+                                        : "anonymous_" + answer.getCreatedAt().toString().substring(0, 16);
 
                         SurveyResultsResponse.RespondentInfoDTO respondentInfo = new SurveyResultsResponse.RespondentInfoDTO(
                                 respondentId,
@@ -567,222 +782,45 @@ public class SurveyService {
                 survey.getDescription(),
                 survey.getCreatedAt(),
                 allResponses.size(), // Count total Response entities (survey submissions)
-                survey.getQuestions().size(),
+                questions.size(),
                 questionResults,
-                respondents);
+                respondents,
+                version,
+                currentVersion);
     }
 
-    /**
-     * Generate advanced analytics for a specific question based on its type
-     */
-    private SurveyResultsResponse.QuestionAnalyticsDTO generateQuestionAnalytics(
-            Question question, List<Answer> answers) {
-
-        String questionType = question.getType().toUpperCase();
-
-        // Initialize all fields
-        Double averageRating = null;
-        Double medianRating = null;
-        Integer minRating = null;
-        Integer maxRating = null;
-        Map<String, Integer> ratingDistribution = new HashMap<>();
-        Map<String, Integer> optionCounts = new HashMap<>();
-        Map<String, Double> optionPercentages = new HashMap<>();
-        String mostPopularOption = null;
-        String leastPopularOption = null;
-        Integer averageTextLength = null;
-        Integer minTextLength = null;
-        Integer maxTextLength = null;
-        List<String> commonKeywords = new ArrayList<>();
-        Map<String, Object> customMetrics = new HashMap<>();
-
-        if (answers.isEmpty()) {
-            return new SurveyResultsResponse.QuestionAnalyticsDTO(
-                    averageRating, medianRating, minRating, maxRating, ratingDistribution,
-                    optionCounts, optionPercentages, mostPopularOption, leastPopularOption,
-                    averageTextLength, minTextLength, maxTextLength, commonKeywords, customMetrics);
-        }
-
-        switch (questionType) {
-            case "RATING":
-                calculateRatingAnalytics(answers, ratingDistribution, customMetrics);
-
-                // Calculate rating statistics using the new ratingValue field
-                List<Integer> ratings = answers.stream()
-                        .map(Answer::getRatingValue)
-                        .filter(rating -> rating != null && rating >= 0 && rating <= 5)
-                        .collect(Collectors.toList());
-
-                if (!ratings.isEmpty()) {
-                    averageRating = ratings.stream().mapToInt(Integer::intValue).average().orElse(0.0);
-                    Collections.sort(ratings);
-                    medianRating = ratings.size() % 2 == 0
-                            ? (ratings.get(ratings.size() / 2 - 1) + ratings.get(ratings.size() / 2)) / 2.0
-                            : ratings.get(ratings.size() / 2).doubleValue();
-                    minRating = ratings.get(0);
-                    maxRating = ratings.get(ratings.size() - 1);
-                }
-                break;
-
-            case "MULTIPLE_CHOICE":
-            case "RADIO":
-            case "DROPDOWN":
-                calculateOptionAnalytics(question, answers, optionCounts, optionPercentages, customMetrics);
-
-                // Find most and least popular options
-                if (!optionCounts.isEmpty()) {
-                    mostPopularOption = optionCounts.entrySet().stream()
-                            .max(Map.Entry.comparingByValue())
-                            .map(Map.Entry::getKey)
-                            .orElse(null);
-
-                    leastPopularOption = optionCounts.entrySet().stream()
-                            .min(Map.Entry.comparingByValue())
-                            .map(Map.Entry::getKey)
-                            .orElse(null);
-                }
-                break;
-
-            case "TEXT":
-            case "LONG_TEXT":
-                calculateTextAnalytics(answers, customMetrics);
-
-                // Calculate text length statistics
-                List<Integer> textLengths = answers.stream()
-                        .map(Answer::getAnswerText)
-                        .filter(text -> text != null)
-                        .map(String::length)
-                        .collect(Collectors.toList());
-
-                if (!textLengths.isEmpty()) {
-                    averageTextLength = (int) textLengths.stream().mapToInt(Integer::intValue).average().orElse(0.0);
-                    minTextLength = textLengths.stream().min(Integer::compareTo).orElse(0);
-                    maxTextLength = textLengths.stream().max(Integer::compareTo).orElse(0);
-
-                    // Extract common keywords (simple implementation)
-                    commonKeywords = extractCommonKeywords(answers);
-                }
-                break;
-
-            default:
-                // For unknown question types, just provide basic metrics
-                customMetrics.put("totalAnswers", answers.size());
-                customMetrics.put("questionType", questionType);
-        }
-
-        return new SurveyResultsResponse.QuestionAnalyticsDTO(
-                averageRating, medianRating, minRating, maxRating, ratingDistribution,
-                optionCounts, optionPercentages, mostPopularOption, leastPopularOption,
-                averageTextLength, minTextLength, maxTextLength, commonKeywords, customMetrics);
+    // Submissions per survey version
+    static Map<Integer, Long> countByVersion(List<Response> responses) {
+        return responses.stream().collect(Collectors.groupingBy(
+                response -> response.getSurveyVersion() != null ? response.getSurveyVersion() : 1,
+                Collectors.counting()));
     }
 
-    private void calculateRatingAnalytics(List<Answer> answers, Map<String, Integer> ratingDistribution,
-            Map<String, Object> customMetrics) {
-        for (Answer answer : answers) {
-            Integer ratingValue = answer.getRatingValue();
-            if (ratingValue != null && ratingValue >= 0 && ratingValue <= 5) {
-                ratingDistribution.merge(ratingValue.toString(), 1, Integer::sum);
-            }
-        }
-
-        customMetrics.put("totalRatings", ratingDistribution.values().stream().mapToInt(Integer::intValue).sum());
-        customMetrics.put("uniqueRatings", ratingDistribution.size());
-    }
-
-    private void calculateOptionAnalytics(Question question, List<Answer> answers,
-            Map<String, Integer> optionCounts,
-            Map<String, Double> optionPercentages,
-            Map<String, Object> customMetrics) {
-
-        // Parse question options
-        List<String> availableOptions = new ArrayList<>();
-        if (question.getOptionsJson() != null && !question.getOptionsJson().trim().isEmpty()) {
-            try {
-                // Simple JSON array parsing (assuming ["option1", "option2", ...])
-                String optionsJson = question.getOptionsJson().trim();
-                if (optionsJson.startsWith("[") && optionsJson.endsWith("]")) {
-                    String[] options = optionsJson.substring(1, optionsJson.length() - 1)
-                            .split(",");
-                    for (String option : options) {
-                        String cleanOption = option.trim().replaceAll("\"", "");
-                        if (!cleanOption.isEmpty()) {
-                            availableOptions.add(cleanOption);
-                            optionCounts.put(cleanOption, 0); // Initialize with 0
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                // If JSON parsing fails, treat answers as free-form options
-            }
-        }
-
-        // Count actual answers
-        for (Answer answer : answers) {
-            String answerText = answer.getAnswerText();
-            if (answerText != null && !answerText.trim().isEmpty()) {
-                optionCounts.merge(answerText.trim(), 1, Integer::sum);
-            }
+    // Submissions of the versions a question (or a compatible predecessor) was
+    // part of; all of them when the plan does not know the question
+    static long respondentsAsked(SurveyPlan plan, long questionId, Map<Integer, Long> responsesByVersion,
+            long totalRespondents) {
+        int index = plan.indexOf(questionId);
+        if (index < 0) {
+            return totalRespondents;
         }
-
-        // Calculate percentages
-        int totalAnswers = answers.size();
-        if (totalAnswers > 0) {
-            for (Map.Entry<String, Integer> entry : optionCounts.entrySet()) {
-                double percentage = (double) entry.getValue() / totalAnswers * 100;
-                optionPercentages.put(entry.getKey(), percentage);
-            }
+        long asked = 0;
+        for (int surveyVersion : plan.mergedVersions(index)) {
+            asked += responsesByVersion.getOrDefault(surveyVersion, 0L);
         }
-
-        customMetrics.put("totalAnswers", totalAnswers);
-        customMetrics.put("uniqueOptions", optionCounts.size());
-        customMetrics.put("predefinedOptions", availableOptions.size());
+        return asked;
     }
 
-    private void calculateTextAnalytics(List<Answer> answers, Map<String, Object> customMetrics) {
-        List<String> allTexts = answers.stream()
-                .map(Answer::getAnswerText)
-                .filter(text -> text != null && !text.trim().isEmpty())
-                .collect(Collectors.toList());
-
-        customMetrics.put("totalTextAnswers", allTexts.size());
-        customMetrics.put("emptyAnswers", answers.size() - allTexts.size());
-
-        if (!allTexts.isEmpty()) {
-            double avgLength = allTexts.stream().mapToInt(String::length).average().orElse(0.0);
-            customMetrics.put("averageLength", avgLength);
-
-            int totalWords = allTexts.stream()
-                    .mapToInt(text -> text.split("\\s+").length)
-                    .sum();
-            customMetrics.put("totalWords", totalWords);
-            customMetrics.put("averageWords", (double) totalWords / allTexts.size());
-        }
-    }
-
-    private List<String> extractCommonKeywords(List<Answer> answers) {
-        Map<String, Integer> wordFrequency = new HashMap<>();
-
+    /**
+     * Generate advanced analytics for a specific question based on its type
+     */
+    private SurveyResultsResponse.QuestionAnalyticsDTO generateQuestionAnalytics(
+            Question question, List<Answer> answers) {
+        QuestionAnalyticsAccumulator accumulator = new QuestionAnalyticsAccumulator(
+                question.getType(), question.getOptionsJson());
         for (Answer answer : answers) {
-            String text = answer.getAnswerText();
-            if (text != null && !text.trim().isEmpty()) {
-                // Simple word extraction (split by whitespace and punctuation)
-                String[] words = text.toLowerCase()
-                        .replaceAll("[^a-zA-Z0-9\\s]", "")
-                        .split("\\s+");
-
-                for (String word : words) {
-                    if (word.length() > 2) { // Ignore very short words
-                        wordFrequency.merge(word, 1, Integer::sum);
-                    }
-                }
-            }
+            accumulator.add(answer.getAnswerText(), answer.getRatingValue());
         }
-
-        // Return top 5 most frequent words
-        return wordFrequency.entrySet().stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                .limit(5)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+        return accumulator.toAnalytics();
     }
 }
@@ -0,0 +1,199 @@
+package com.training.feedbacktool.service;
+
+import com.training.feedbacktool.repository.AnswersRepository;
+import com.training.feedbacktool.repository.ResponsesRepository;
+import com.training.feedbacktool.repository.SurveyDailyStatsRepository;
+import com.training.feedbacktool.repository.SurveyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maintains the survey_daily_stats rollup. Days are UTC calendar days.
+ *
+ * The rollup only counts submissions recorded since it was introduced, so it
+ * is not trusted until a startup check has found its totals matching the raw
+ * tables of live surveys (or a full rebuild has completed without failures). Readers check
+ * {@link #isRollupReady()} and fall back to raw counts until then.
+ */
+@Service
+public class SurveyStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SurveyStatsService.class);
+    private static final int REBUILD_CHUNK_SIZE = 100;
+
+    private final SurveyDailyStatsRepository statsRepository;
+    private final SurveyRepository surveyRepository;
+    private final ResponsesRepository responsesRepository;
+    private final AnswersRepository answersRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean(false);
+    private volatile int lastRebuildFailures = -1;
+    private volatile boolean rollupReady = false;
+
+    public SurveyStatsService(SurveyDailyStatsRepository statsRepository,
+            SurveyRepository surveyRepository,
+            ResponsesRepository responsesRepository,
+            AnswersRepository answersRepository,
+            PlatformTransactionManager transactionManager) {
+        this.statsRepository = statsRepository;
+        this.surveyRepository = surveyRepository;
+        this.responsesRepository = responsesRepository;
+        this.answersRepository = answersRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Add a submission to the rollup. Runs in the caller's transaction so the
+     * rollup commits or rolls back together with the submission.
+     */
+    @Transactional
+    public void recordSubmission(Long surveyId, Instant submittedAt, int answerCount, Integer completionTimeSeconds) {
+        statsRepository.upsertIncrement(
+                surveyId,
+                toRollupDay(submittedAt),
+                1,
+                answerCount,
+                completionTimeSeconds != null ? completionTimeSeconds : 0);
+    }
+
+    public static LocalDate toRollupDay(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    /**
+     * Recompute the rollup rows of a single survey from raw responses and answers
+     */
+    @Transactional
+    public void rebuildSurvey(Long surveyId) {
+        statsRepository.deleteBySurveyId(surveyId);
+        statsRepository.upsertResponseTotalsForSurvey(surveyId);
+        statsRepository.upsertAnswerTotalsForSurvey(surveyId);
+    }
+
+    /**
+     * Check the rollup against the raw tables once the application is up, and
+     * backfill it when it is empty or short (e.g. the first start after the
+     * rollup was introduced). Submissions update both in one transaction, so
+     * matching totals mean the rollup is complete.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfIncomplete() {
+        if (!rebuildRunning.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            long rolledUpResponses = statsRepository.sumResponses();
+            long rolledUpAnswers = statsRepository.sumAnswers();
+            long responses = responsesRepository.countOnLiveSurveys();
+            long answers = answersRepository.countOnLiveSurveys();
+            if (rolledUpResponses == responses && rolledUpAnswers == answers) {
+                rollupReady = true;
+                logger.info("Survey stats rollup is complete ({} responses, {} answers)", responses, answers);
+                return;
+            }
+
+            logger.info("Survey stats rollup is incomplete ({}/{} responses, {}/{} answers), backfilling",
+                    rolledUpResponses, responses, rolledUpAnswers, answers);
+            runRebuild();
+        } catch (Exception e) {
+            logger.error("Survey stats rollup check failed, serving raw counts", e);
+        } finally {
+            rebuildRunning.set(false);
+        }
+    }
+
+    /**
+     * Recompute the whole rollup, one transaction per chunk of surveys. A chunk
+     * that fails is retried one survey per transaction, so a bad survey only
+     * loses its own rows; the rebuild always runs to the end and reports how
+     * many surveys failed.
+     */
+    @Async
+    public void rebuildAll() {
+        if (!rebuildRunning.compareAndSet(false, true)) {
+            logger.warn("Survey stats rebuild already running, ignoring request");
+            return;
+        }
+
+        try {
+            runRebuild();
+        } finally {
+            rebuildRunning.set(false);
+        }
+    }
+
+    // Returns the number of surveys whose rollup could not be rebuilt
+    private int runRebuild() {
+        int rebuilt = 0;
+        List<Long> failed = new ArrayList<>();
+        Page<Long> chunk;
+        int pageNumber = 0;
+        do {
+            chunk = surveyRepository.findAllIds(PageRequest.of(pageNumber++, REBUILD_CHUNK_SIZE, Sort.by("id")));
+            Page<Long> ids = chunk;
+            try {
+                transactionTemplate.executeWithoutResult(status -> ids.forEach(this::rebuildSurvey));
+            } catch (Exception e) {
+                logger.warn("Survey stats rebuild chunk failed, retrying its surveys one by one: {}",
+                        e.getMessage());
+                for (Long surveyId : ids) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> rebuildSurvey(surveyId));
+                    } catch (Exception single) {
+                        logger.error("Survey stats rebuild failed for survey {}", surveyId, single);
+                        failed.add(surveyId);
+                    }
+                }
+            }
+            rebuilt += chunk.getNumberOfElements();
+            logger.info("Survey stats rebuild progress: {}/{} surveys", rebuilt, chunk.getTotalElements());
+        } while (chunk.hasNext());
+
+        lastRebuildFailures = failed.size();
+        if (failed.isEmpty()) {
+            rollupReady = true;
+            logger.info("Survey stats rebuild completed for {} surveys", rebuilt);
+        } else {
+            logger.warn("Survey stats rebuild completed with {} of {} surveys failed: {}", failed.size(), rebuilt,
+                    failed);
+        }
+        return failed.size();
+    }
+
+    public boolean isRebuildRunning() {
+        return rebuildRunning.get();
+    }
+
+    /**
+     * Whether the rollup is known to hold every submission
+     */
+    public boolean isRollupReady() {
+        return rollupReady;
+    }
+
+    /**
+     * Surveys that failed in the last completed rebuild (-1 before the first)
+     */
+    public int getLastRebuildFailures() {
+        return lastRebuildFailures;
+    }
+}
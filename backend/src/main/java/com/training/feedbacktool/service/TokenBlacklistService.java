@@ -1,85 +1,118 @@
 package com.training.feedbacktool.service;
 
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Service;
-import java.util.Set;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.Date;
-import java.util.Iterator;
+import java.util.function.LongSupplier;
 
 /**
  * Service to manage blacklisted JWT tokens for proper logout functionality.
+ * Tokens are keyed by their id (jti claim), so lookups are a single hash probe.
+ * Expired entries are dropped by a hashed timing wheel rather than a full sweep.
  * This is an in-memory implementation. For production, consider using Redis or
  * database.
  */
 @Service
 public class TokenBlacklistService {
 
-    // Store blacklisted tokens with their expiration time
-    private final Set<BlacklistedToken> blacklistedTokens = ConcurrentHashMap.newKeySet();
-    private final ScheduledExecutorService cleanupExecutor = Executors.newScheduledThreadPool(1);
+    private static final long TICK_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    // Power of two; one revolution covers ~17 hours, longer expiries take extra rounds
+    private static final int WHEEL_SIZE = 1024;
+
+    // Revoked token id -> expiration time (epoch millis)
+    private final Map<String, Long> blacklistedTokens = new ConcurrentHashMap<>();
+    private final Queue<ExpiryEntry>[] wheel;
+    private final LongSupplier clock;
+    private final long startMillis;
+    private volatile long currentTick;
+    private final ScheduledExecutorService cleanupExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "token-blacklist-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public TokenBlacklistService() {
-        // Clean up expired tokens every hour
-        cleanupExecutor.scheduleAtFixedRate(this::cleanupExpiredTokens, 1, 1, TimeUnit.HOURS);
+        this(System::currentTimeMillis, true);
+    }
+
+    // Tests drive the clock and the ticks themselves
+    @SuppressWarnings("unchecked")
+    TokenBlacklistService(LongSupplier clock, boolean scheduleTicks) {
+        this.clock = clock;
+        this.startMillis = clock.getAsLong();
+        wheel = (Queue<ExpiryEntry>[]) new Queue<?>[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        if (scheduleTicks) {
+            cleanupExecutor.scheduleAtFixedRate(this::advanceWheel, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
     }
 
     /**
-     * Add a token to the blacklist
+     * Add a token to the blacklist until it expires
      */
-    public void blacklistToken(String token, Date expirationDate) {
-        blacklistedTokens.add(new BlacklistedToken(token, expirationDate));
+    public void blacklistToken(String tokenId, Date expirationDate) {
+        long expiresAt = expirationDate.getTime();
+        if (expiresAt <= clock.getAsLong()) {
+            // Already expired, the token is rejected anyway
+            return;
+        }
+        blacklistedTokens.put(tokenId, expiresAt);
+
+        // Schedule removal on the first tick at or after expiry (never the tick in progress)
+        long expiryTick = Math.max((expiresAt - startMillis + TICK_MILLIS - 1) / TICK_MILLIS, currentTick + 1);
+        wheel[(int) (expiryTick & (WHEEL_SIZE - 1))].add(new ExpiryEntry(tokenId, expiresAt, expiryTick));
     }
 
     /**
      * Check if a token is blacklisted
      */
-    public boolean isTokenBlacklisted(String token) {
-        return blacklistedTokens.stream()
-                .anyMatch(blacklistedToken -> blacklistedToken.token.equals(token));
+    public boolean isTokenBlacklisted(String tokenId) {
+        return tokenId != null && blacklistedTokens.containsKey(tokenId);
     }
 
     /**
-     * Remove expired tokens from the blacklist to prevent memory leaks
+     * Number of tokens currently blacklisted
      */
-    private void cleanupExpiredTokens() {
-        Date now = new Date();
-        Iterator<BlacklistedToken> iterator = blacklistedTokens.iterator();
+    public int size() {
+        return blacklistedTokens.size();
+    }
+
+    /**
+     * Advance the wheel one tick, removing entries due in that slot. Entries due
+     * in a later revolution stay in the slot.
+     */
+    void advanceWheel() {
+        long tick = currentTick + 1;
+        Iterator<ExpiryEntry> iterator = wheel[(int) (tick & (WHEEL_SIZE - 1))].iterator();
         while (iterator.hasNext()) {
-            BlacklistedToken blacklistedToken = iterator.next();
-            if (blacklistedToken.expirationDate.before(now)) {
+            ExpiryEntry entry = iterator.next();
+            if (entry.expiryTick <= tick) {
                 iterator.remove();
+                // Only drop the mapping if it was not re-added with a later expiry
+                blacklistedTokens.remove(entry.tokenId, entry.expiresAt);
             }
         }
+        currentTick = tick;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleanupExecutor.shutdownNow();
     }
 
     /**
-     * Inner class to store blacklisted token with its expiration
+     * Scheduled removal of a blacklisted token
      */
-    private static class BlacklistedToken {
-        private final String token;
-        private final Date expirationDate;
-
-        public BlacklistedToken(String token, Date expirationDate) {
-            this.token = token;
-            this.expirationDate = expirationDate;
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj)
-                return true;
-            if (obj == null || getClass() != obj.getClass())
-                return false;
-            BlacklistedToken that = (BlacklistedToken) obj;
-            return token.equals(that.token);
-        }
-
-        @Override
-        public int hashCode() {
-            return token.hashCode();
-        }
+    private record ExpiryEntry(String tokenId, long expiresAt, long expiryTick) {
     }
-}
\ No newline at end of file
+}
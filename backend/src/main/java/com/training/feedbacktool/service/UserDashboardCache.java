@@ -0,0 +1,61 @@
+package com.training.feedbacktool.service;
+
+import com.training.feedbacktool.dto.UserDashboardResponse;
+import com.training.feedbacktool.util.InvalidatingLruCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of user dashboards by user id. A user's entry is dropped
+ * when they submit a response, and all entries when the set of active surveys
+ * changes (after the transaction commits). Entries also expire after a TTL,
+ * which bounds how stale the submission counts of other users' activity get.
+ * Hits and misses are counted in {@code dashboard.cache.requests}.
+ */
+@Service
+public class UserDashboardCache {
+
+    private final InvalidatingLruCache<Long, UserDashboardResponse> dashboards;
+
+    public UserDashboardCache(MeterRegistry meterRegistry,
+            @Value("${app.dashboard.cache.max-size:10000}") int maxSize,
+            @Value("${app.dashboard.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.dashboards = new InvalidatingLruCache<>(maxSize, Duration.ofSeconds(ttlSeconds));
+        FunctionCounter.builder("dashboard.cache.requests", dashboards, InvalidatingLruCache::hitCount)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("dashboard.cache.requests", dashboards, InvalidatingLruCache::missCount)
+                .tag("result", "miss").register(meterRegistry);
+        Gauge.builder("dashboard.cache.size", this, UserDashboardCache::size).register(meterRegistry);
+    }
+
+    /**
+     * Get a user's dashboard, building it with the loader on a miss
+     */
+    public UserDashboardResponse get(Long userId, Supplier<UserDashboardResponse> loader) {
+        return dashboards.get(userId, loader);
+    }
+
+    /**
+     * Drop one user's dashboard once the current transaction (if any) commits
+     */
+    public void invalidate(Long userId) {
+        dashboards.invalidate(userId);
+    }
+
+    /**
+     * Drop every dashboard once the current transaction (if any) commits
+     */
+    public void invalidateAll() {
+        dashboards.invalidateAll();
+    }
+
+    public int size() {
+        return dashboards.size();
+    }
+}
@@ -1,7 +1,6 @@
 package com.training.feedbacktool.service;
 
 import com.training.feedbacktool.entity.User;
-import com.training.feedbacktool.entity.Survey;
 import com.training.feedbacktool.entity.Answer;
 import com.training.feedbacktool.entity.Response;
 import com.training.feedbacktool.repository.UserRepository;
@@ -10,6 +9,8 @@ import com.training.feedbacktool.repository.AnswersRepository;
 import com.training.feedbacktool.repository.ResponsesRepository;
 import com.training.feedbacktool.dto.CreateUserRequest;
 import com.training.feedbacktool.dto.CreateUserResponse;
+import com.training.feedbacktool.dto.DashboardSurveyRow;
+import com.training.feedbacktool.dto.UserCompletionRow;
 import com.training.feedbacktool.dto.UserDashboardResponse;
 import com.training.feedbacktool.dto.UserDashboardStats;
 import com.training.feedbacktool.dto.UserSurveyResponse;
@@ -21,7 +22,10 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,19 +37,24 @@ public class UserService {
         private final SurveyRepository surveyRepository;
         private final AnswersRepository answersRepository;
         private final ResponsesRepository responsesRepository;
+        private final UserDashboardCache userDashboardCache;
+        private final SurveyStatsService surveyStatsService;
 
         @Value("${app.user.default-role:USER}")
         private String defaultRole;
 
         public UserService(UserRepository repo, PasswordEncoder passwordEncoder, JwtUtil jwtUtil,
                         SurveyRepository surveyRepository, AnswersRepository answersRepository,
-                        ResponsesRepository responsesRepository) {
+                        ResponsesRepository responsesRepository, UserDashboardCache userDashboardCache,
+                        SurveyStatsService surveyStatsService) {
                 this.repo = repo;
                 this.passwordEncoder = passwordEncoder;
                 this.jwtUtil = jwtUtil;
                 this.surveyRepository = surveyRepository;
                 this.answersRepository = answersRepository;
                 this.responsesRepository = responsesRepository;
+                this.userDashboardCache = userDashboardCache;
+                this.surveyStatsService = surveyStatsService;
         }
 
         @Transactional
@@ -76,89 +85,76 @@ public class UserService {
                                 saved.getId());
         }
 
-        @Transactional(readOnly = true)
+        /**
+         * Get a user's dashboard, served from the per-user cache when possible
+         */
         public UserDashboardResponse getUserDashboard(Long userId) {
+                return userDashboardCache.get(userId, () -> loadUserDashboard(userId));
+        }
+
+        private UserDashboardResponse loadUserDashboard(Long userId) {
                 // Verify user exists
                 if (!repo.existsById(userId)) {
                         throw new IllegalArgumentException("User not found with ID: " + userId);
                 }
 
-                // Get all active surveys
-                List<Survey> activeSurveys = surveyRepository.findAll().stream()
-                                .filter(survey -> "ACTIVE".equals(survey.getStatus()))
-                                .collect(Collectors.toList());
-
-                // Get surveys user has responded to
-                List<Long> respondedSurveyIds = answersRepository.findSurveyIdsRespondedByUser(userId);
+                // Active surveys with precomputed counts, and the user's completions
+                // keyed by survey for constant-time lookups
+                List<DashboardSurveyRow> activeSurveys = surveyStatsService.isRollupReady()
+                                ? surveyRepository.findActiveDashboardRows()
+                                : surveyRepository.findActiveDashboardRowsFromResponses();
+                Map<Long, UserCompletionRow> completions = new HashMap<>();
+                for (UserCompletionRow row : responsesRepository.findCompletionRowsByUserId(userId)) {
+                        completions.put(row.surveyId(), row);
+                }
 
                 // Separate completed and pending surveys
-                List<UserSurveyResponse> completedSurveys = activeSurveys.stream()
-                                .filter(survey -> respondedSurveyIds.contains(survey.getId()))
-                                .map(survey -> {
-                                        java.time.Instant completedDate = answersRepository
-                                                        .findCompletionDateByUserAndSurvey(userId,
-                                                                        survey.getId());
-                                        Long totalResponses = surveyRepository
-                                                        .countAuthenticatedResponsesBySurveyId(survey.getId()) +
-                                                        surveyRepository.countAnonymousResponsesBySurveyId(
-                                                                        survey.getId());
-
-                                        return new UserSurveyResponse(
-                                                        survey.getId(),
-                                                        survey.getTitle(),
-                                                        survey.getDescription(),
-                                                        "COMPLETED",
-                                                        null, // No deadline for completed surveys
-                                                        completedDate,
-                                                        null, // No estimated time for completed surveys
-                                                        totalResponses.intValue());
-                                })
-                                .collect(Collectors.toList());
-
-                List<UserSurveyResponse> pendingSurveys = activeSurveys.stream()
-                                .filter(survey -> !respondedSurveyIds.contains(survey.getId()))
-                                .map(survey -> {
-                                        Long questionCount = surveyRepository.countQuestionsBySurveyId(survey.getId());
-                                        String estimatedTime = calculateEstimatedTime(questionCount);
-
-                                        return new UserSurveyResponse(
-                                                        survey.getId(),
-                                                        survey.getTitle(),
-                                                        survey.getDescription(),
-                                                        "PENDING",
-                                                        calculateDeadline(survey.getCreatedAt()), // Mock deadline logic
-                                                        null,
-                                                        estimatedTime,
-                                                        null);
-                                })
-                                .collect(Collectors.toList());
+                List<UserSurveyResponse> completedSurveys = new ArrayList<>();
+                List<UserSurveyResponse> pendingSurveys = new ArrayList<>();
+                for (DashboardSurveyRow survey : activeSurveys) {
+                        UserCompletionRow completion = completions.get(survey.id());
+                        if (completion != null) {
+                                completedSurveys.add(new UserSurveyResponse(
+                                                survey.id(),
+                                                survey.title(),
+                                                survey.description(),
+                                                "COMPLETED",
+                                                null, // No deadline for completed surveys
+                                                completion.completedAt(),
+                                                null, // No estimated time for completed surveys
+                                                survey.responseCount().intValue()));
+                        } else {
+                                pendingSurveys.add(new UserSurveyResponse(
+                                                survey.id(),
+                                                survey.title(),
+                                                survey.description(),
+                                                "PENDING",
+                                                calculateDeadline(survey.createdAt()), // Mock deadline logic
+                                                null,
+                                                calculateEstimatedTime(survey.questionCount()),
+                                                null));
+                        }
+                }
 
                 // Calculate stats
-                // Calculate average completion time from responses
-                List<Response> userResponses = responsesRepository.findByUserId(userId);
+                // Calculate average completion time from the user's timed submissions
                 Double averageCompletionTimeMinutes = null;
                 Integer totalTimeSpentMinutes = null;
 
-                if (!userResponses.isEmpty()) {
-                        // Calculate average completion time
-                        List<Integer> completionTimes = userResponses.stream()
-                                        .filter(response -> response.getCompletionTimeSeconds() != null)
-                                        .map(Response::getCompletionTimeSeconds)
-                                        .collect(Collectors.toList());
-
-                        if (!completionTimes.isEmpty()) {
-                                double avgSeconds = completionTimes.stream()
-                                                .mapToInt(Integer::intValue)
-                                                .average()
-                                                .orElse(0.0);
-                                averageCompletionTimeMinutes = Math.round(avgSeconds / 60.0 * 100.0) / 100.0;
-
-                                // Calculate total time spent
-                                int totalSeconds = completionTimes.stream()
-                                                .mapToInt(Integer::intValue)
-                                                .sum();
-                                totalTimeSpentMinutes = totalSeconds / 60;
+                long totalSeconds = 0;
+                long timedSubmissions = 0;
+                for (UserCompletionRow completion : completions.values()) {
+                        if (completion.completionSeconds() != null) {
+                                totalSeconds += completion.completionSeconds();
                         }
+                        timedSubmissions += completion.timedSubmissions();
+                }
+                if (timedSubmissions > 0) {
+                        double avgSeconds = (double) totalSeconds / timedSubmissions;
+                        averageCompletionTimeMinutes = Math.round(avgSeconds / 60.0 * 100.0) / 100.0;
+
+                        // Calculate total time spent
+                        totalTimeSpentMinutes = (int) (totalSeconds / 60);
                 }
 
                 UserDashboardStats stats = new UserDashboardStats(
@@ -0,0 +1,285 @@
+package com.training.feedbacktool.util;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * Allocation-light CSV writer. Fields are cleaned and escaped into a scratch
+ * buffer that is reused for every cell and written straight to the underlying
+ * writer; numbers are formatted without {@code String.format}. A row is built
+ * with the {@code field} methods and ended with {@link #endRow()}.
+ * <p>
+ * Two cleaning modes match the export's long-standing output: {@link #field}
+ * turns line breaks into a space and trims, {@link #text} also collapses every
+ * whitespace run to one space. Cells containing a comma or quote are quoted.
+ * Not thread-safe.
+ */
+public class CsvWriter implements Flushable {
+
+    private static final int INITIAL_BUFFER_SIZE = 256;
+    private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L };
+
+    private final Writer out;
+    private char[] buffer = new char[INITIAL_BUFFER_SIZE];
+    private boolean rowStarted;
+
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Write a whole row of plain fields (headers and summary lines)
+     */
+    public void row(String... values) throws IOException {
+        for (String value : values) {
+            field(value);
+        }
+        endRow();
+    }
+
+    /**
+     * Write a line as-is, outside the CSV row structure (section titles)
+     */
+    public void line(String text) throws IOException {
+        endRow();
+        out.write(text);
+        out.write('\n');
+    }
+
+    /**
+     * Write an empty line
+     */
+    public void blankLine() throws IOException {
+        endRow();
+        out.write('\n');
+    }
+
+    /**
+     * Plain field: line breaks become a space, the value is trimmed and quoted
+     * if needed. {@code null} is written as an empty quoted value.
+     */
+    public CsvWriter field(String value) throws IOException {
+        separator();
+        if (value == null) {
+            out.write("\"\"");
+        } else {
+            writeEscaped(value, false);
+        }
+        return this;
+    }
+
+    /**
+     * Free-text field: all whitespace runs collapse to one space before
+     * escaping. {@code null} is written as an empty value.
+     */
+    public CsvWriter text(String value) throws IOException {
+        separator();
+        if (value != null) {
+            writeEscaped(value, true);
+        }
+        return this;
+    }
+
+    public CsvWriter field(long value) throws IOException {
+        separator();
+        int length = appendLong(value, 0);
+        out.write(buffer, 0, length);
+        return this;
+    }
+
+    /**
+     * Number with a fixed count of decimals, rounded and signed exactly as
+     * {@code String.format("%.Nf")} does, always with a dot
+     */
+    public CsvWriter field(double value, int decimals) throws IOException {
+        separator();
+        writeFixed(value, decimals, false);
+        return this;
+    }
+
+    /**
+     * Percentage with a fixed count of decimals followed by {@code %}
+     */
+    public CsvWriter percent(double value, int decimals) throws IOException {
+        separator();
+        writeFixed(value, decimals, true);
+        return this;
+    }
+
+    /**
+     * Date/time formatted directly into the output; the pattern must not
+     * produce commas or quotes
+     */
+    public CsvWriter field(TemporalAccessor value, DateTimeFormatter formatter) throws IOException {
+        separator();
+        formatter.formatTo(value, out);
+        return this;
+    }
+
+    /**
+     * End the current row, if one was started
+     */
+    public void endRow() throws IOException {
+        if (rowStarted) {
+            out.write('\n');
+            rowStarted = false;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        endRow();
+        out.flush();
+    }
+
+    private void separator() throws IOException {
+        if (rowStarted) {
+            out.write(',');
+        } else {
+            rowStarted = true;
+        }
+    }
+
+    private void writeEscaped(String value, boolean collapseWhitespace) throws IOException {
+        int length = value.length();
+        char[] buf = ensureCapacity(length);
+
+        // Clean into the buffer: collapse line breaks (or all whitespace) to one space
+        int size = 0;
+        boolean inRun = false;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            boolean collapsible = collapseWhitespace ? isWhitespace(c) : (c == '\n' || c == '\r');
+            if (collapsible) {
+                if (!inRun) {
+                    buf[size++] = ' ';
+                    inRun = true;
+                }
+            } else {
+                buf[size++] = c;
+                inRun = false;
+            }
+        }
+
+        // Trim as String.trim() does
+        int start = 0;
+        while (start < size && buf[start] <= ' ') {
+            start++;
+        }
+        while (size > start && buf[size - 1] <= ' ') {
+            size--;
+        }
+
+        boolean quote = false;
+        for (int i = start; i < size; i++) {
+            if (buf[i] == ',' || buf[i] == '"') {
+                quote = true;
+                break;
+            }
+        }
+        if (!quote) {
+            out.write(buf, start, size - start);
+            return;
+        }
+
+        // Write quoted, doubling embedded quotes segment by segment
+        out.write('"');
+        int segment = start;
+        for (int i = start; i < size; i++) {
+            if (buf[i] == '"') {
+                out.write(buf, segment, i - segment + 1);
+                segment = i;
+            }
+        }
+        out.write(buf, segment, size - segment);
+        out.write('"');
+    }
+
+    private void writeFixed(double value, int decimals, boolean percent) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value) || decimals < 0 || decimals >= POWERS_OF_TEN.length
+                || Math.abs(value) >= 1e12) {
+            // Outside the range the fast path handles exactly
+            out.write(Double.toString(value));
+        } else {
+            long scale = POWERS_OF_TEN[decimals];
+            long scaled = roundHalfUp(Math.abs(value), decimals, scale);
+            int size = 0;
+            char[] buf = ensureCapacity(32);
+            // String.format keeps the sign of values that round to zero
+            if (Math.copySign(1.0, value) < 0) {
+                buf[size++] = '-';
+            }
+            size = appendLong(scaled / scale, size);
+            if (decimals > 0) {
+                buf = buffer;
+                buf[size++] = '.';
+                long fraction = scaled % scale;
+                for (long divisor = scale / 10; divisor > 0; divisor /= 10) {
+                    buf[size++] = (char) ('0' + fraction / divisor % 10);
+                }
+            }
+            out.write(buffer, 0, size);
+        }
+        if (percent) {
+            out.write('%');
+        }
+    }
+
+    // Round like String.format: half-up on the shortest decimal form of the
+    // double (1.005 -> 1.01), not on its binary value (1.00499...). Only values
+    // within a hair of a tie need the exact decimal path.
+    private static long roundHalfUp(double value, int decimals, long scale) {
+        double scaled = value * scale;
+        double fraction = scaled - Math.floor(scaled);
+        if (Math.abs(fraction - 0.5) > 1e-6) {
+            return Math.round(scaled);
+        }
+        return BigDecimal.valueOf(value).setScale(decimals, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    // Append the decimal digits of a long to the buffer at offset, returning the new length
+    private int appendLong(long value, int offset) {
+        char[] buf = ensureCapacity(offset + 20);
+        if (value == Long.MIN_VALUE) {
+            String digits = Long.toString(value);
+            digits.getChars(0, digits.length(), buf, offset);
+            return offset + digits.length();
+        }
+        int position = offset;
+        if (value < 0) {
+            buf[position++] = '-';
+            value = -value;
+        }
+        int digitsStart = position;
+        do {
+            buf[position++] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        // Digits were written least significant first
+        for (int i = digitsStart, j = position - 1; i < j; i++, j--) {
+            char swap = buf[i];
+            buf[i] = buf[j];
+            buf[j] = swap;
+        }
+        return position;
+    }
+
+    private char[] ensureCapacity(int capacity) {
+        if (buffer.length < capacity) {
+            char[] grown = new char[Math.max(capacity, buffer.length * 2)];
+            System.arraycopy(buffer, 0, grown, 0, buffer.length);
+            buffer = grown;
+        }
+        return buffer;
+    }
+
+    // Same set as the regex \s
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,134 @@
+package com.training.feedbacktool.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache whose entries are built on a miss by a caller-supplied
+ * loader and dropped after the current transaction commits, optionally also
+ * expiring after a TTL. Loaders run outside the lock, so concurrent misses for
+ * one key may each build the value.
+ * <p>
+ * Every invalidation bumps a stamp; a value whose loader started before an
+ * invalidation is returned but not cached, since it may have been built from
+ * data the invalidating transaction changed.
+ */
+public class InvalidatingLruCache<K, V> {
+
+    private final Map<K, Entry<V>> entries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public InvalidatingLruCache(int maxSize) {
+        this(maxSize, null);
+    }
+
+    /**
+     * @param ttl how long an entry is served after it was loaded, or null to
+     *            keep entries until they are invalidated or evicted
+     */
+    public InvalidatingLruCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    // Tests drive the clock themselves
+    InvalidatingLruCache(int maxSize, Duration ttl, LongSupplier nanoClock) {
+        this.ttlNanos = ttl != null ? ttl.toNanos() : Long.MAX_VALUE;
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get the value for a key, building it with the loader on a miss
+     */
+    public V get(K key, Supplier<V> loader) {
+        long now = nanoClock.getAsLong();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && now - entry.loadedAt() < ttlNanos) {
+                hits.increment();
+                return entry.value();
+            }
+        }
+        misses.increment();
+
+        long stamp = invalidations.get();
+        V value = loader.get();
+        synchronized (entries) {
+            if (invalidations.get() == stamp) {
+                entries.put(key, new Entry<>(value, now));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drop one key once the current transaction (if any) commits
+     */
+    public void invalidate(K key) {
+        afterCommit(() -> {
+            invalidations.incrementAndGet();
+            synchronized (entries) {
+                entries.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Drop every entry once the current transaction (if any) commits
+     */
+    public void invalidateAll() {
+        afterCommit(() -> {
+            invalidations.incrementAndGet();
+            synchronized (entries) {
+                entries.clear();
+            }
+        });
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
@@ -3,12 +3,21 @@ package com.training.feedbacktool.util;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
 import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
@@ -19,8 +28,27 @@ public class JwtUtil {
     @Value("${app.jwt.expiration:86400000}") // 24 hours in milliseconds
     private long jwtExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${app.jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Recently verified tokens by SHA-256 of the token, least recently used evicted first
+    private Map<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        verifiedTokens = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > verifiedCacheSize;
+            }
+        });
     }
 
     public String generateToken(String email, String role, Long userId) {
@@ -28,50 +56,87 @@ public class JwtUtil {
         Instant expiry = now.plusMillis(jwtExpiration);
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .claim("role", role)
                 .claim("userId", userId)
                 .subject(email)
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(expiry))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verify a token once and return its claims. Recently verified tokens are
+     * served from a bounded cache until they expire.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public VerifiedToken verify(String token) {
+        String key = hash(token);
+        VerifiedToken cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            verifiedTokens.remove(key);
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        VerifiedToken verified = new VerifiedToken(
+                claims.getId() != null ? claims.getId() : token,
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.get("userId", Long.class),
+                claims.getExpiration());
+        verifiedTokens.put(key, verified);
+        return verified;
+    }
+
     public String extractEmail(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).email();
     }
 
     public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
+        return verify(token).role();
     }
 
     public Long extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get("userId", Long.class));
+        return verify(token).userId();
+    }
+
+    /**
+     * Id used to revoke a token: its jti claim, or the token itself for tokens
+     * issued before jti was added
+     */
+    public String extractTokenId(String token) {
+        return verify(token).tokenId();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return verify(token).expiration();
     }
 
     public <T> T extractClaim(String token, java.util.function.Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parser.parseSignedClaims(token).getPayload();
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
     public boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return verify(token).isExpired();
     }
 
     public boolean validateToken(String token, String email) {
-        final String tokenEmail = extractEmail(token);
-        return (tokenEmail.equals(email) && !isTokenExpired(token));
+        final VerifiedToken verified = verify(token);
+        return (verified.email().equals(email) && !verified.isExpired());
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
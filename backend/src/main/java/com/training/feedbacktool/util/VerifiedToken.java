@@ -0,0 +1,13 @@
+package com.training.feedbacktool.util;
+
+import java.util.Date;
+
+/**
+ * Claims of a JWT whose signature has been verified
+ */
+public record VerifiedToken(String tokenId, String email, String role, Long userId, Date expiration) {
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
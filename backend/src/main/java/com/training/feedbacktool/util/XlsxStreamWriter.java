@@ -0,0 +1,212 @@
+package com.training.feedbacktool.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Minimal streaming XLSX (SpreadsheetML) writer. Rows are written straight
+ * into the current sheet's ZIP entry using inline strings, so there is no
+ * shared-string table and memory does not grow with the number of rows.
+ * Sheets are written one after another; the workbook parts are added by
+ * {@link #finish()}.
+ */
+public class XlsxStreamWriter implements Closeable {
+
+    /** Row limit of a single Excel worksheet */
+    public static final int MAX_ROWS_PER_SHEET = 1_048_576;
+
+    private static final int MAX_SHEET_NAME_LENGTH = 31;
+
+    private final ZipOutputStream zip;
+    private final List<String> sheetNames = new ArrayList<>();
+    private Writer sheet;
+    private int rowsInSheet;
+    private boolean finished;
+
+    public XlsxStreamWriter(OutputStream out) {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Start a new worksheet, ending the current one
+     */
+    public void startSheet(String name) throws IOException {
+        endSheet();
+        String sheetName = uniqueSheetName(name);
+        sheetNames.add(sheetName);
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetNames.size() + ".xml"));
+        sheet = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 16 * 1024);
+        sheet.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+        rowsInSheet = 0;
+    }
+
+    /**
+     * Write one row. Numbers become numeric cells, null an empty cell and
+     * anything else an inline string.
+     */
+    public void row(Object... cells) throws IOException {
+        if (sheet == null) {
+            throw new IllegalStateException("No sheet started");
+        }
+        if (rowsInSheet >= MAX_ROWS_PER_SHEET) {
+            throw new IllegalStateException("Sheet row limit reached");
+        }
+        rowsInSheet++;
+        sheet.write("<row r=\"");
+        sheet.write(Integer.toString(rowsInSheet));
+        sheet.write("\">");
+        for (Object cell : cells) {
+            if (cell == null) {
+                sheet.write("<c/>");
+            } else if (cell instanceof Number number && isFinite(number)) {
+                sheet.write("<c><v>");
+                sheet.write(number.toString());
+                sheet.write("</v></c>");
+            } else {
+                sheet.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                writeEscaped(cell.toString());
+                sheet.write("</t></is></c>");
+            }
+        }
+        sheet.write("</row>");
+    }
+
+    /**
+     * Write an empty row
+     */
+    public void blankRow() throws IOException {
+        row();
+    }
+
+    public int getRowsInSheet() {
+        return rowsInSheet;
+    }
+
+    /**
+     * Write the workbook parts and finish the archive. The underlying stream
+     * is left open.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        if (sheetNames.isEmpty()) {
+            startSheet("Sheet1");
+        }
+        endSheet();
+
+        StringBuilder contentTypes = new StringBuilder(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                        + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                        + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                        + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                        + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>");
+        StringBuilder workbook = new StringBuilder(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                        + "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" "
+                        + "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\"><sheets>");
+        StringBuilder workbookRels = new StringBuilder(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                        + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">");
+
+        for (int i = 1; i <= sheetNames.size(); i++) {
+            contentTypes.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+            workbook.append("<sheet name=\"").append(escape(sheetNames.get(i - 1)))
+                    .append("\" sheetId=\"").append(i).append("\" r:id=\"rId").append(i).append("\"/>");
+            workbookRels.append("<Relationship Id=\"rId").append(i)
+                    .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet")
+                    .append(i).append(".xml\"/>");
+        }
+        contentTypes.append("</Types>");
+        workbook.append("</sheets></workbook>");
+        workbookRels.append("</Relationships>");
+
+        writeEntry("[Content_Types].xml", contentTypes.toString());
+        writeEntry("_rels/.rels", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+        writeEntry("xl/workbook.xml", workbook.toString());
+        writeEntry("xl/_rels/workbook.xml.rels", workbookRels.toString());
+
+        zip.finish();
+        zip.flush();
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+    }
+
+    private void endSheet() throws IOException {
+        if (sheet == null) {
+            return;
+        }
+        sheet.write("</sheetData></worksheet>");
+        sheet.flush();
+        zip.closeEntry();
+        sheet = null;
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    // Sheet names: max 31 chars, no []:*?/\ and unique within the workbook
+    private String uniqueSheetName(String name) {
+        String base = name.replaceAll("[\\[\\]:*?/\\\\]", " ").trim();
+        if (base.isEmpty()) {
+            base = "Sheet";
+        }
+        if (base.length() > MAX_SHEET_NAME_LENGTH) {
+            base = base.substring(0, MAX_SHEET_NAME_LENGTH);
+        }
+        String candidate = base;
+        for (int n = 2; sheetNames.contains(candidate); n++) {
+            String suffix = " (" + n + ")";
+            candidate = base.substring(0, Math.min(base.length(), MAX_SHEET_NAME_LENGTH - suffix.length())) + suffix;
+        }
+        return candidate;
+    }
+
+    private static boolean isFinite(Number number) {
+        return !(number instanceof Double d && (d.isNaN() || d.isInfinite()))
+                && !(number instanceof Float f && (f.isNaN() || f.isInfinite()));
+    }
+
+    // Escape XML markup and drop characters XML 1.0 cannot carry
+    private void writeEscaped(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> sheet.write("&lt;");
+                case '>' -> sheet.write("&gt;");
+                case '&' -> sheet.write("&amp;");
+                case '"' -> sheet.write("&quot;");
+                default -> {
+                    if ((c >= 0x20 && c != 0xFFFE && c != 0xFFFF) || c == '\t' || c == '\n' || c == '\r') {
+                        sheet.write(c);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
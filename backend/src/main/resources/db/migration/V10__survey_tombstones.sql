@@ -0,0 +1,17 @@
+-- Deleted surveys are tombstoned first and purged in chunks by a background
+-- worker; the index serves the worker's scan for pending purges.
+-- Hibernate's ddl-auto adds the same column, so the column and index are only
+-- created when missing; the script is safe to re-run.
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+        WHERE table_schema = DATABASE() AND table_name = 'surveys' AND column_name = 'deleted_at') = 0,
+    'ALTER TABLE surveys ADD COLUMN deleted_at TIMESTAMP NULL', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+        WHERE table_schema = DATABASE() AND table_name = 'surveys' AND index_name = 'idx_surveys_deleted_at') = 0,
+    'CREATE INDEX idx_surveys_deleted_at ON surveys(deleted_at)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
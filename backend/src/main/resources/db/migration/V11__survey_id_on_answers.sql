@@ -0,0 +1,50 @@
+-- Denormalize the survey id onto answers so per-survey and per-user-per-survey
+-- queries filter answers directly instead of joining through questions.
+-- Hibernate's ddl-auto may already have added the column (existing rows then
+-- hold 0), so every change is only applied when missing and the backfill
+-- covers both cases; the script is safe to re-run. The application refuses to
+-- start while answers with no survey id remain.
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+        WHERE table_schema = DATABASE() AND table_name = 'answers' AND column_name = 'survey_id') = 0,
+    'ALTER TABLE answers ADD COLUMN survey_id BIGINT NULL', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+UPDATE answers a
+JOIN questions q ON q.id = a.question_id
+SET a.survey_id = q.survey_id
+WHERE a.survey_id IS NULL OR a.survey_id = 0;
+
+ALTER TABLE answers MODIFY survey_id BIGINT NOT NULL;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.table_constraints
+        WHERE table_schema = DATABASE() AND table_name = 'answers' AND constraint_name = 'fk_answers_survey') = 0,
+    'ALTER TABLE answers ADD CONSTRAINT fk_answers_survey FOREIGN KEY (survey_id) REFERENCES surveys(id)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- (survey_id, created_at): survey scans, time-ordered exports, latest-answer watermark
+-- (survey_id, question_id): per-question aggregates within a survey
+-- (user_id, survey_id): a user's answers to a survey, surveys a user answered
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+        WHERE table_schema = DATABASE() AND table_name = 'answers' AND index_name = 'idx_answers_survey_created_at') = 0,
+    'CREATE INDEX idx_answers_survey_created_at ON answers(survey_id, created_at)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+        WHERE table_schema = DATABASE() AND table_name = 'answers' AND index_name = 'idx_answers_survey_question') = 0,
+    'CREATE INDEX idx_answers_survey_question ON answers(survey_id, question_id)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+        WHERE table_schema = DATABASE() AND table_name = 'answers' AND index_name = 'idx_answers_user_survey') = 0,
+    'CREATE INDEX idx_answers_user_survey ON answers(user_id, survey_id)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
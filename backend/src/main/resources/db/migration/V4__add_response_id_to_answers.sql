@@ -0,0 +1,23 @@
+-- Link each answer to the survey submission (responses row) it was part of
+ALTER TABLE answers ADD COLUMN response_id BIGINT NULL;
+
+ALTER TABLE answers
+ADD CONSTRAINT fk_answers_response FOREIGN KEY (response_id) REFERENCES responses(id);
+
+CREATE INDEX idx_answers_response_id ON answers(response_id);
+
+-- Backfill existing answers: attach each answer to the closest submission of the
+-- same survey by the same user (or anonymous) within 5 minutes, matching the
+-- heuristic previously used when building survey results
+UPDATE answers a
+JOIN questions q ON q.id = a.question_id
+SET a.response_id = (
+    SELECT r.id
+    FROM responses r
+    WHERE r.survey_id = q.survey_id
+      AND (r.user_id = a.user_id OR (r.user_id IS NULL AND a.user_id IS NULL))
+      AND ABS(TIMESTAMPDIFF(SECOND, r.created_at, a.created_at)) <= 300
+    ORDER BY ABS(TIMESTAMPDIFF(SECOND, r.created_at, a.created_at))
+    LIMIT 1
+)
+WHERE a.response_id IS NULL;
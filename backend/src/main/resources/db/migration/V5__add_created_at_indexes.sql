@@ -0,0 +1,6 @@
+-- Indexes backing the database-side dashboard aggregates (trends, overview)
+CREATE INDEX idx_answers_created_at ON answers(created_at);
+
+CREATE INDEX idx_surveys_created_at ON surveys(created_at);
+
+CREATE INDEX idx_surveys_status ON surveys(status);
@@ -0,0 +1,24 @@
+-- Per-survey daily (UTC) rollup maintained on every submission
+CREATE TABLE survey_daily_stats (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    survey_id BIGINT NOT NULL,
+    day DATE NOT NULL,
+    response_count BIGINT NOT NULL DEFAULT 0,
+    answer_count BIGINT NOT NULL DEFAULT 0,
+    sum_completion_seconds BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_survey_daily_stats_survey_day UNIQUE (survey_id, day)
+);
+
+CREATE INDEX idx_survey_daily_stats_day ON survey_daily_stats(day);
+
+-- Seed the rollup from existing data (the rebuild endpoint does the same per survey)
+INSERT INTO survey_daily_stats (survey_id, day, response_count, answer_count, sum_completion_seconds)
+SELECT r.survey_id, DATE(r.created_at), COUNT(*), 0, COALESCE(SUM(r.completion_time_seconds), 0)
+FROM responses r
+GROUP BY r.survey_id, DATE(r.created_at);
+
+INSERT INTO survey_daily_stats (survey_id, day, response_count, answer_count, sum_completion_seconds)
+SELECT q.survey_id, DATE(a.created_at), 0, COUNT(*), 0
+FROM answers a JOIN questions q ON q.id = a.question_id
+GROUP BY q.survey_id, DATE(a.created_at)
+ON DUPLICATE KEY UPDATE answer_count = VALUES(answer_count);
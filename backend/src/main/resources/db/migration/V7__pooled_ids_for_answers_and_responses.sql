@@ -0,0 +1,15 @@
+-- Answers and responses now take ids from pooled sequences (emulated with tables
+-- on MySQL, allocation size 50) so Hibernate can batch their inserts.
+-- Safe to run before or after deploying, and to re-run: if Hibernate created
+-- the tables first (seeded with 1) the sequences are only ever moved forward,
+-- past the highest existing id. The application refuses to start while a
+-- sequence is behind its table.
+CREATE TABLE IF NOT EXISTS answers_seq (next_val BIGINT);
+INSERT INTO answers_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM answers_seq);
+UPDATE answers_seq
+SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 100 FROM answers));
+
+CREATE TABLE IF NOT EXISTS responses_seq (next_val BIGINT);
+INSERT INTO responses_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM responses_seq);
+UPDATE responses_seq
+SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 100 FROM responses));
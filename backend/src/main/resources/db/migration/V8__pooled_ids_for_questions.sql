@@ -0,0 +1,9 @@
+-- Questions now take ids from a pooled sequence (emulated with a table on MySQL,
+-- allocation size 50) so survey edits can batch their question inserts.
+-- Safe to run before or after deploying, and to re-run: if Hibernate created
+-- the table first (seeded with 1) the sequence is only ever moved forward, past
+-- the highest existing id. The application refuses to start while it is behind.
+CREATE TABLE IF NOT EXISTS questions_seq (next_val BIGINT);
+INSERT INTO questions_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM questions_seq);
+UPDATE questions_seq
+SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 100 FROM questions));
@@ -0,0 +1,46 @@
+-- Copy-on-write survey versions: editing questions after responses arrived
+-- retires the current questions and adds a new version. Existing surveys,
+-- questions and responses all become version 1.
+-- Hibernate's ddl-auto adds the same columns with the same defaults, so each
+-- change is only applied when missing; the script is safe to re-run.
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+        WHERE table_schema = DATABASE() AND table_name = 'surveys' AND column_name = 'current_version') = 0,
+    'ALTER TABLE surveys ADD COLUMN current_version INT NOT NULL DEFAULT 1', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+        WHERE table_schema = DATABASE() AND table_name = 'questions' AND column_name = 'survey_version') = 0,
+    'ALTER TABLE questions ADD COLUMN survey_version INT NOT NULL DEFAULT 1', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+        WHERE table_schema = DATABASE() AND table_name = 'questions' AND column_name = 'retired') = 0,
+    'ALTER TABLE questions ADD COLUMN retired BOOLEAN NOT NULL DEFAULT FALSE', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+        WHERE table_schema = DATABASE() AND table_name = 'questions' AND column_name = 'origin_question_id') = 0,
+    'ALTER TABLE questions ADD COLUMN origin_question_id BIGINT NULL', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+        WHERE table_schema = DATABASE() AND table_name = 'questions' AND index_name = 'idx_questions_survey_version') = 0,
+    'CREATE INDEX idx_questions_survey_version ON questions(survey_id, survey_version)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+        WHERE table_schema = DATABASE() AND table_name = 'responses' AND column_name = 'survey_version') = 0,
+    'ALTER TABLE responses ADD COLUMN survey_version INT NOT NULL DEFAULT 1', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
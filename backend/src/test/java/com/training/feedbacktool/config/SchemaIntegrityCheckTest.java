@@ -0,0 +1,73 @@
+package com.training.feedbacktool.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaIntegrityCheckTest {
+
+    private final Map<String, Long> results = new HashMap<>();
+
+    @Test
+    void sequencesWithAFreeNextBlockPass() {
+        sequence("answers", 1000L, 1050L);
+        sequence("responses", 200L, 300L);
+        sequence("questions", null, 1L);
+
+        check().verify();
+    }
+
+    @Test
+    void sequenceWhoseNextBlockOverlapsExistingIdsFails() {
+        // The usual manual fix, next_val = MAX(id) + 1, still hands out 952..1001
+        sequence("answers", 1000L, 1001L);
+        sequence("responses", 200L, 300L);
+        sequence("questions", 10L, 100L);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> check().verify());
+        assertTrue(e.getMessage().contains("answers_seq is at 1001"), e.getMessage());
+        assertFalse(e.getMessage().contains("responses_seq"), e.getMessage());
+    }
+
+    @Test
+    void missingSequenceRowFails() {
+        sequence("answers", 1000L, 1050L);
+        sequence("responses", 200L, 300L);
+        sequence("questions", 10L, null);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> check().verify());
+        assertTrue(e.getMessage().contains("V8__pooled_ids_for_questions.sql"), e.getMessage());
+    }
+
+    @Test
+    void answersWithoutSurveyIdFail() {
+        sequence("answers", 1000L, 1050L);
+        sequence("responses", 200L, 300L);
+        sequence("questions", 10L, 100L);
+        results.put("SELECT COUNT(*) FROM answers WHERE survey_id IS NULL OR survey_id = 0", 3L);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> check().verify());
+        assertTrue(e.getMessage().contains("3 answers have no survey_id"), e.getMessage());
+    }
+
+    private void sequence(String table, Long maxId, Long nextVal) {
+        results.put("SELECT MAX(id) FROM " + table, maxId);
+        results.put("SELECT MAX(next_val) FROM " + table + "_seq", nextVal);
+    }
+
+    private SchemaIntegrityCheck check() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+            @Override
+            public <T> T queryForObject(String sql, Class<T> requiredType) {
+                return requiredType.cast(results.getOrDefault(sql, 0L));
+            }
+        };
+        return new SchemaIntegrityCheck(jdbcTemplate, null);
+    }
+}
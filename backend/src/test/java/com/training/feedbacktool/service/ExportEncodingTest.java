@@ -0,0 +1,93 @@
+package com.training.feedbacktool.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExportEncodingTest {
+
+    @Test
+    void negotiateWithoutHeaderIsIdentity() {
+        assertEquals(ExportEncoding.IDENTITY, ExportEncoding.negotiate(null));
+        assertEquals(ExportEncoding.IDENTITY, ExportEncoding.negotiate(" "));
+    }
+
+    @Test
+    void negotiateAcceptsGzipOrWildcard() {
+        assertEquals(ExportEncoding.GZIP, ExportEncoding.negotiate("gzip"));
+        assertEquals(ExportEncoding.GZIP, ExportEncoding.negotiate("deflate, GZIP;q=0.5"));
+        assertEquals(ExportEncoding.GZIP, ExportEncoding.negotiate("br, *"));
+        assertEquals(ExportEncoding.GZIP, ExportEncoding.negotiate("gzip; q=1.0"));
+    }
+
+    @Test
+    void negotiateIgnoresOtherCodings() {
+        assertEquals(ExportEncoding.IDENTITY, ExportEncoding.negotiate("deflate, br"));
+        assertEquals(ExportEncoding.IDENTITY, ExportEncoding.negotiate("x-gzipped"));
+    }
+
+    @Test
+    void negotiateHonoursZeroQuality() {
+        assertEquals(ExportEncoding.IDENTITY, ExportEncoding.negotiate("gzip;q=0"));
+        assertEquals(ExportEncoding.IDENTITY, ExportEncoding.negotiate("*;q=0.000"));
+        assertEquals(ExportEncoding.IDENTITY, ExportEncoding.negotiate("gzip;q=bogus"));
+    }
+
+    @Test
+    void negotiateLetsExplicitGzipOverrideWildcard() {
+        assertEquals(ExportEncoding.IDENTITY, ExportEncoding.negotiate("gzip;q=0, *"));
+        assertEquals(ExportEncoding.IDENTITY, ExportEncoding.negotiate("*, gzip;q=0"));
+        assertEquals(ExportEncoding.GZIP, ExportEncoding.negotiate("*;q=0, gzip"));
+    }
+
+    @Test
+    void fromParameterAcceptsAliases() {
+        assertEquals(ExportEncoding.GZIP, ExportEncoding.fromParameter(" GZ "));
+        assertEquals(ExportEncoding.IDENTITY, ExportEncoding.fromParameter("none"));
+        assertThrows(IllegalArgumentException.class, () -> ExportEncoding.fromParameter("zstd"));
+    }
+
+    @Test
+    void gzipRoundTripsAndLeavesTheTargetOpen() throws IOException {
+        byte[] payload = "id,answer\n1,yes\n".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        ClosingTracker target = new ClosingTracker();
+
+        OutputStream encoder = ExportEncoding.GZIP.wrap(target);
+        encoder.write(payload);
+        ExportEncoding.GZIP.finish(encoder);
+
+        assertFalse(target.closed);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(target.toByteArray()))) {
+            assertArrayEquals(payload, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void identityWritesThrough() throws IOException {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        OutputStream encoder = ExportEncoding.IDENTITY.wrap(target);
+        encoder.write(new byte[] { 1, 2, 3 });
+        ExportEncoding.IDENTITY.finish(encoder);
+
+        assertArrayEquals(new byte[] { 1, 2, 3 }, target.toByteArray());
+    }
+
+    private static class ClosingTracker extends ByteArrayOutputStream {
+        boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.training.feedbacktool.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.feedbacktool.dto.SubmitResponseRequest;
+import com.training.feedbacktool.dto.SubmitResponseRequest.AnswerDTO;
+import com.training.feedbacktool.entity.Answer;
+import com.training.feedbacktool.entity.Question;
+import com.training.feedbacktool.entity.Survey;
+import com.training.feedbacktool.repository.QuestionRepository;
+import com.training.feedbacktool.repository.SurveyRepository;
+import com.training.feedbacktool.service.ResponseService.PreparedSubmission;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Submission validation against the compiled survey plan
+ */
+class ResponseServiceTest {
+
+    private static final long SURVEY_ID = 7L;
+
+    private final Survey survey = SurveyPlanTest.survey(
+            requiredQuestion(1L, "TEXT"), SurveyPlanTest.question(2L, "RATING"),
+            SurveyPlanTest.question(3L, "TEXT"));
+
+    @Test
+    void validSubmissionBuildsAnswersAndSkipsBlankOptionalOnes() {
+        survey.setCurrentVersion(3);
+
+        PreparedSubmission submission = service().prepareSubmission(SURVEY_ID, request(
+                new AnswerDTO(1L, "  great  ", null),
+                new AnswerDTO(2L, null, 4),
+                new AnswerDTO(3L, "   ", null)), null);
+
+        assertNull(submission.user());
+        assertEquals(3, submission.response().getSurveyVersion());
+        assertEquals(2, submission.answers().size());
+        Answer text = submission.answers().get(0);
+        assertEquals("great", text.getAnswerText());
+        assertEquals(SURVEY_ID, text.getSurveyId());
+        assertEquals(1L, text.getQuestion().getId());
+        Answer rating = submission.answers().get(1);
+        assertEquals(4, rating.getRatingValue());
+        assertEquals("RATING:4", rating.getAnswerText());
+        assertEquals(submission.response(), rating.getResponse());
+    }
+
+    @Test
+    void inactiveSurveysRejectSubmissions() {
+        survey.setStatus("DRAFT");
+
+        assertThrows(IllegalStateException.class,
+                () -> service().prepareSubmission(SURVEY_ID, request(new AnswerDTO(1L, "a", null)), null));
+    }
+
+    @Test
+    void expiredSurveysRejectSubmissions() {
+        survey.setEndDate(Instant.now().minusSeconds(60));
+
+        assertThrows(IllegalStateException.class,
+                () -> service().prepareSubmission(SURVEY_ID, request(new AnswerDTO(1L, "a", null)), null));
+    }
+
+    @Test
+    void missingRequiredAnswersAreListed() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> service().prepareSubmission(SURVEY_ID, request(new AnswerDTO(1L, " ", null),
+                        new AnswerDTO(2L, null, 3)), null));
+
+        assertTrue(e.getMessage().contains("Question 1"), e.getMessage());
+    }
+
+    @Test
+    void answersToQuestionsOutsideTheSurveyAreRejected() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> service().prepareSubmission(SURVEY_ID, request(new AnswerDTO(1L, "a", null),
+                        new AnswerDTO(99L, "b", null)), null));
+
+        assertTrue(e.getMessage().contains("99"), e.getMessage());
+    }
+
+    @Test
+    void ratingsOutsideTheScaleAreRejected() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> service().prepareSubmission(SURVEY_ID, request(new AnswerDTO(1L, "a", null),
+                        new AnswerDTO(2L, null, 6)), null));
+
+        assertTrue(e.getMessage().startsWith("Rating value must be between 0 and 5"), e.getMessage());
+    }
+
+    @Test
+    void choiceAnswersMustBeOneOfTheOptions() {
+        Question choice = SurveyPlanTest.question(4L, "MULTIPLE_CHOICE");
+        choice.setOptionsJson("[\"Yes\", \"No\"]");
+        Question unparsed = SurveyPlanTest.question(5L, "DROPDOWN");
+        unparsed.setOptionsJson("not json");
+        survey.setQuestions(List.of(requiredQuestion(1L, "TEXT"), choice, unparsed));
+
+        PreparedSubmission submission = service().prepareSubmission(SURVEY_ID, request(new AnswerDTO(1L, "a", null),
+                new AnswerDTO(4L, " No ", null), new AnswerDTO(5L, "anything", null)), null);
+        assertEquals("No", submission.answers().get(1).getAnswerText());
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> service().prepareSubmission(SURVEY_ID, request(new AnswerDTO(1L, "a", null),
+                        new AnswerDTO(4L, "Maybe", null)), null));
+        assertTrue(e.getMessage().startsWith("Answer is not one of the options"), e.getMessage());
+    }
+
+    private ResponseService service() {
+        SurveyPlan plan = SurveyPlan.compile(survey, new ObjectMapper());
+        SurveyPlanCache planCache = new SurveyPlanCache(null, null, null, 1) {
+            @Override
+            public SurveyPlan getPlan(Long surveyId) {
+                return plan;
+            }
+        };
+        SurveyRepository surveyRepository = referencesOnly(SurveyRepository.class, id -> survey);
+        QuestionRepository questionRepository = referencesOnly(QuestionRepository.class, id -> {
+            Question question = new Question();
+            question.setId(id);
+            return question;
+        });
+        return new ResponseService(surveyRepository, null, null, null, null, null, null, questionRepository,
+                planCache, null);
+    }
+
+    private static SubmitResponseRequest request(AnswerDTO... answers) {
+        return new SubmitResponseRequest(List.of(answers), 42);
+    }
+
+    private static Question requiredQuestion(Long id, String type) {
+        Question question = SurveyPlanTest.question(id, type);
+        question.setRequired(true);
+        return question;
+    }
+
+    // Repository that only hands out references; any other call fails the test
+    private static <T> T referencesOnly(Class<T> type, Function<Long, Object> reference) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getReferenceById")) {
+                        return reference.apply((Long) args[0]);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }));
+    }
+}
@@ -0,0 +1,241 @@
+package com.training.feedbacktool.service;
+
+import com.training.feedbacktool.dto.SubmitResponseRequest;
+import com.training.feedbacktool.entity.Answer;
+import com.training.feedbacktool.entity.Response;
+import com.training.feedbacktool.service.ResponseService.PreparedSubmission;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Write-behind ingestion: group commits and the one-by-one retry after a
+ * failed group
+ */
+class SubmissionIngestionServiceTest {
+
+    // Submissions to this survey fail to persist, like a constraint violation
+    private static final long BAD_SURVEY_ID = 13L;
+
+    private final FakeResponseService responseService = new FakeResponseService();
+    private SubmissionIngestionService service;
+
+    @AfterEach
+    void tearDown() {
+        responseService.gate.countDown();
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void queuedSubmissionsAreWrittenInOneGroup() {
+        service = start(10);
+        enqueueGate();
+        List<String> receipts = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            receipts.add(service.enqueue(1L, request(), null).orElseThrow());
+        }
+        responseService.gate.countDown();
+        service.shutdown();
+
+        assertEquals(3, receipts.stream().distinct().count());
+        assertEquals(List.of(1, 3), responseService.attempts);
+        assertEquals(List.of("s1", "s2", "s3", "s4"), responseService.committed);
+        assertEquals(responseService.committed, responseService.notified);
+    }
+
+    @Test
+    void failedGroupIsRetriedOneByOneWithFreshIds() {
+        service = start(10);
+        enqueueGate();
+        service.enqueue(1L, request(), null);
+        service.enqueue(BAD_SURVEY_ID, request(), null);
+        service.enqueue(1L, request(), null);
+        responseService.gate.countDown();
+        service.shutdown();
+
+        // Gate, failed group of three, then each of the three alone
+        assertEquals(List.of(1, 3, 1, 1, 1), responseService.attempts);
+        assertEquals(List.of("s1", "s2", "s3"), responseService.committed);
+        assertEquals(responseService.committed, responseService.notified);
+        assertEquals(0, responseService.idsReused.get());
+    }
+
+    @Test
+    void groupsAreCappedAtTheBatchSize() {
+        service = start(2);
+        enqueueGate();
+        for (int i = 0; i < 5; i++) {
+            service.enqueue(1L, request(), null);
+        }
+        responseService.gate.countDown();
+        service.shutdown();
+
+        assertEquals(List.of(1, 2, 2, 1), responseService.attempts);
+        assertEquals(6, responseService.committed.size());
+    }
+
+    @Test
+    void fullQueueRejectsSubmissions() {
+        service = start(10, 1);
+        enqueueGate();
+        assertTrue(service.enqueue(1L, request(), null).isPresent());
+
+        assertFalse(service.enqueue(1L, request(), null).isPresent());
+    }
+
+    @Test
+    void invalidSubmissionsAreRejectedBeforeQueueing() {
+        service = start(10);
+
+        assertThrows(IllegalArgumentException.class, () -> service.enqueue(1L, null, null));
+    }
+
+    @Test
+    void submissionsAreRejectedAfterShutdown() {
+        service = start(10);
+        service.shutdown();
+
+        assertFalse(service.enqueue(1L, request(), null).isPresent());
+        assertTrue(responseService.attempts.isEmpty());
+    }
+
+    @Test
+    void everyAcceptedSubmissionIsWrittenWhenShutdownRacesEnqueue() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            FakeResponseService responses = new FakeResponseService();
+            responses.slowPrepare = true;
+            SubmissionIngestionService ingestion = new SubmissionIngestionService(responses, true, 100_000, 50, 5, 5);
+            ingestion.start();
+            AtomicLong accepted = new AtomicLong();
+            List<Thread> clients = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                Thread client = new Thread(() -> {
+                    while (ingestion.enqueue(1L, request(), null).isPresent()) {
+                        accepted.incrementAndGet();
+                    }
+                });
+                client.start();
+                clients.add(client);
+            }
+            Thread.sleep(5);
+            ingestion.shutdown();
+            for (Thread client : clients) {
+                client.join();
+            }
+
+            assertEquals(accepted.get(), responses.committed.size(), "round " + round);
+        }
+    }
+
+    private SubmissionIngestionService start(int batchSize) {
+        return start(batchSize, 100);
+    }
+
+    private SubmissionIngestionService start(int batchSize, int queueCapacity) {
+        SubmissionIngestionService ingestion = new SubmissionIngestionService(responseService, true,
+                queueCapacity, batchSize, 5, 5);
+        ingestion.start();
+        return ingestion;
+    }
+
+    // Occupy the writer so the following submissions queue up behind it
+    private void enqueueGate() {
+        responseService.blockNext = true;
+        service.enqueue(1L, request(), null);
+        try {
+            assertTrue(responseService.writing.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static SubmitResponseRequest request() {
+        return new SubmitResponseRequest(List.of(), null);
+    }
+
+    /**
+     * Persists into memory, handing out ids the way the pooled sequence does
+     * and failing the whole group when any submission is bad
+     */
+    private static class FakeResponseService extends ResponseService {
+
+        final List<Integer> attempts = Collections.synchronizedList(new ArrayList<>());
+        final List<String> committed = Collections.synchronizedList(new ArrayList<>());
+        final List<String> notified = Collections.synchronizedList(new ArrayList<>());
+        final AtomicLong idsReused = new AtomicLong();
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        volatile boolean blockNext;
+        // Widen the window between the accepting check and the offer
+        volatile boolean slowPrepare;
+        private final AtomicLong sequence = new AtomicLong();
+        private int prepared;
+
+        FakeResponseService() {
+            super(null, null, null, null, null, null, null, null, null, null);
+        }
+
+        @Override
+        public synchronized PreparedSubmission prepareSubmission(Long surveyId, SubmitResponseRequest request,
+                String authToken) {
+            if (request == null) {
+                throw new IllegalArgumentException("No answers");
+            }
+            if (slowPrepare) {
+                Thread.yield();
+            }
+            Response response = new Response();
+            response.setResponseText(surveyId == BAD_SURVEY_ID ? "bad" : "s" + ++prepared);
+            Answer answer = new Answer();
+            answer.setResponse(response);
+            return new PreparedSubmission(null, null, response, List.of(answer));
+        }
+
+        @Override
+        public void persistSubmissions(List<PreparedSubmission> submissions) {
+            attempts.add(submissions.size());
+            if (blockNext) {
+                blockNext = false;
+                writing.countDown();
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            List<String> written = new ArrayList<>();
+            for (PreparedSubmission submission : submissions) {
+                Response response = submission.response();
+                if (response.getId() != null) {
+                    // A leftover id turns the insert into a merge of a row that does not exist
+                    idsReused.incrementAndGet();
+                }
+                response.setId(sequence.incrementAndGet());
+                submission.answers().forEach(answer -> answer.setId(sequence.incrementAndGet()));
+                if (response.getResponseText().equals("bad")) {
+                    throw new IllegalStateException("Constraint violation");
+                }
+                written.add(response.getResponseText());
+            }
+            committed.addAll(written);
+        }
+
+        @Override
+        public void notifyAdmins(List<PreparedSubmission> submissions) {
+            submissions.forEach(submission -> notified.add(submission.response().getResponseText()));
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.training.feedbacktool.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.feedbacktool.entity.Question;
+import com.training.feedbacktool.entity.Survey;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SurveyPlanTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void questionsAreIndexedInIdOrder() {
+        SurveyPlan plan = SurveyPlan.compile(survey(question(30L, "TEXT"), question(10L, "RATING"),
+                question(20L, "RADIO")), objectMapper);
+
+        assertEquals(3, plan.questionCount());
+        assertEquals(10L, plan.questionId(0));
+        assertEquals(0, plan.indexOf(10L));
+        assertEquals(1, plan.indexOf(20L));
+        assertEquals(2, plan.indexOf(30L));
+        assertEquals(-1, plan.indexOf(15L));
+        assertEquals(-1, plan.indexOf(99L));
+    }
+
+    @Test
+    void questionTypesAreParsedLeniently() {
+        SurveyPlan plan = SurveyPlan.compile(survey(question(1L, " rating "), question(2L, "long_text"),
+                question(3L, "matrix"), question(4L, null)), objectMapper);
+
+        assertEquals(SurveyPlan.QuestionType.RATING, plan.type(0));
+        assertEquals(SurveyPlan.QuestionType.LONG_TEXT, plan.type(1));
+        assertEquals(SurveyPlan.QuestionType.OTHER, plan.type(2));
+        assertEquals(SurveyPlan.QuestionType.OTHER, plan.type(3));
+    }
+
+    @Test
+    void onlyJsonArraysBecomeOptionSets() {
+        Question choice = question(1L, "RADIO");
+        choice.setOptionsJson("[\" Poor\", \"OK \", \"Great\", \"OK\"]");
+        Question rating = question(2L, "RATING");
+        rating.setOptionsJson("{\"min\": 0, \"max\": 5}");
+        Question broken = question(3L, "DROPDOWN");
+        broken.setOptionsJson("[\"unterminated");
+        Question text = question(4L, "TEXT");
+
+        SurveyPlan plan = SurveyPlan.compile(survey(choice, rating, broken, text), objectMapper);
+
+        assertEquals(Set.of("Poor", "OK", "Great"), plan.options(0));
+        assertEquals(Set.of(), plan.options(1));
+        assertEquals(Set.of(), plan.options(2));
+        assertEquals(Set.of(), plan.options(3));
+    }
+
+    @Test
+    void requiredQuestionsAreReturnedAsACopy() {
+        Question required = question(2L, "TEXT");
+        required.setRequired(true);
+        Question unset = question(3L, "TEXT");
+        unset.setRequired(null);
+        SurveyPlan plan = SurveyPlan.compile(survey(question(1L, "TEXT"), required, unset), objectMapper);
+
+        assertFalse(plan.isRequired(0));
+        assertTrue(plan.isRequired(1));
+        assertFalse(plan.isRequired(2));
+
+        BitSet copy = plan.requiredQuestions();
+        copy.set(0);
+        assertFalse(plan.isRequired(0));
+        assertEquals(1, plan.requiredQuestions().cardinality());
+    }
+
+    @Test
+    void surveyStateIsCaptured() {
+        Survey survey = survey(question(1L, "TEXT"));
+        survey.setStatus("active");
+        Instant endDate = Instant.parse("2024-05-01T10:00:00Z");
+        survey.setEndDate(endDate);
+        survey.setCurrentVersion(null);
+
+        SurveyPlan plan = SurveyPlan.compile(survey, objectMapper);
+
+        assertTrue(plan.isActive());
+        assertEquals(endDate, plan.endDate());
+        assertEquals(1, plan.surveyVersion());
+        assertEquals(7L, plan.surveyId());
+        assertEquals("Survey", plan.title());
+    }
+
+    @Test
+    void draftSurveysAreNotActive() {
+        Survey survey = survey(question(1L, "TEXT"));
+        survey.setStatus("DRAFT");
+
+        assertFalse(SurveyPlan.compile(survey, objectMapper).isActive());
+    }
+
+    @Test
+    void currentQuestionsMergeIntoThemselves() {
+        SurveyPlan plan = SurveyPlan.compile(survey(question(1L, "TEXT")), objectMapper);
+
+        assertEquals(1L, plan.mergedQuestionId(1L));
+        assertEquals(-1L, plan.mergedQuestionId(2L));
+    }
+
+    @Test
+    void retiredQuestionsMergeIntoCompatibleCurrentQuestions() {
+        Question textV1 = question(1L, "TEXT");
+        Question choiceV1 = question(2L, "RADIO");
+        choiceV1.setOptionsJson("[\"a\",\"b\"]");
+        Question ratingV1 = question(3L, "RATING");
+        Question droppedV1 = question(4L, "TEXT");
+
+        Question textV2 = successor(11L, textV1);
+        Question choiceV2 = successor(12L, choiceV1);
+        choiceV2.setOptionsJson("[\"a\",\"b\",\"c\"]");
+        Question ratingV2 = successor(13L, ratingV1);
+        ratingV2.setType("TEXT");
+
+        SurveyPlan plan = SurveyPlan.compile(survey(textV2, choiceV2, ratingV2),
+                List.of(textV1, choiceV1, ratingV1, droppedV1), objectMapper);
+
+        assertEquals(11L, plan.mergedQuestionId(1L));
+        assertEquals(11L, plan.mergedQuestionId(11L));
+        // Changed options or type keep versions apart
+        assertEquals(-1L, plan.mergedQuestionId(2L));
+        assertEquals(-1L, plan.mergedQuestionId(3L));
+        // No current counterpart
+        assertEquals(-1L, plan.mergedQuestionId(4L));
+    }
+
+    @Test
+    void everyRetiredVersionOfALineageMergesIntoTheCurrentQuestion() {
+        Question v1 = question(1L, "TEXT");
+        Question v2 = successor(11L, v1);
+        Question v3 = successor(21L, v2);
+
+        SurveyPlan plan = SurveyPlan.compile(survey(v3), List.of(v1, v2), objectMapper);
+
+        assertEquals(21L, plan.mergedQuestionId(1L));
+        assertEquals(21L, plan.mergedQuestionId(11L));
+    }
+
+    @Test
+    void mergedVersionsListTheVersionsEachCurrentQuestionWasAskedIn() {
+        Question keptV1 = question(1L, "TEXT");
+        Question changedV1 = question(2L, "RATING");
+        Question keptV2 = successor(11L, keptV1);
+        Question changedV2 = successor(12L, changedV1);
+        changedV2.setType("TEXT");
+        Question addedV2 = question(13L, "TEXT");
+        addedV2.setSurveyVersion(2);
+
+        SurveyPlan plan = SurveyPlan.compile(survey(keptV2, changedV2, addedV2), List.of(keptV1, changedV1),
+                objectMapper);
+
+        assertEquals(Set.of(1, 2), plan.mergedVersions(plan.indexOf(11L)));
+        assertEquals(Set.of(2), plan.mergedVersions(plan.indexOf(12L)));
+        assertEquals(Set.of(2), plan.mergedVersions(plan.indexOf(13L)));
+    }
+
+    // Next-version copy of a question, as a copy-on-write edit creates it
+    private static Question successor(Long id, Question previous) {
+        Question question = question(id, previous.getType());
+        question.setOptionsJson(previous.getOptionsJson());
+        question.setOriginQuestionId(previous.getLineageId());
+        question.setSurveyVersion(previous.getSurveyVersion() + 1);
+        return question;
+    }
+
+    static Survey survey(Question... questions) {
+        Survey survey = new Survey();
+        survey.setId(7L);
+        survey.setTitle("Survey");
+        survey.setStatus("ACTIVE");
+        survey.setQuestions(List.of(questions));
+        return survey;
+    }
+
+    static Question question(Long id, String type) {
+        Question question = new Question();
+        question.setId(id);
+        question.setType(type);
+        question.setQuestionText("Question " + id);
+        return question;
+    }
+}
@@ -0,0 +1,240 @@
+package com.training.feedbacktool.service;
+
+import com.training.feedbacktool.dto.SurveyPurgeStatus;
+import com.training.feedbacktool.repository.AnswersRepository;
+import com.training.feedbacktool.repository.QuestionRepository;
+import com.training.feedbacktool.repository.ResponsesRepository;
+import com.training.feedbacktool.repository.SurveyDailyStatsRepository;
+import com.training.feedbacktool.repository.SurveyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Chunked survey purges against in-memory tables
+ */
+class SurveyPurgeServiceTest {
+
+    private static final long SURVEY_ID = 7L;
+    private static final long OTHER_SURVEY_ID = 8L;
+
+    // Every repository call and transaction boundary, in order
+    private final List<String> log = Collections.synchronizedList(new ArrayList<>());
+    private final Table answers = new Table("answers");
+    private final Table responses = new Table("responses");
+    private SurveyPurgeService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    @Test
+    void rowsAreDeletedInIdRangeChunksOneTransactionEach() {
+        answers.add(SURVEY_ID, 1, 2500);
+        answers.add(OTHER_SURVEY_ID, 2501, 2600);
+        responses.add(SURVEY_ID, 1, 1200);
+
+        SurveyPurgeStatus status = purge(1000);
+
+        assertEquals("COMPLETED", status.status());
+        assertEquals(2500, status.answersDeleted());
+        assertEquals(2500, status.answersTotal());
+        assertEquals(1200, status.responsesDeleted());
+        assertEquals(1200, status.responsesTotal());
+        assertEquals(List.of(
+                "begin", "delete answers (0, 1000]", "commit",
+                "begin", "delete answers (1000, 2000]", "commit",
+                "begin", "delete answers (2000, 2500]", "commit",
+                "begin", "delete responses (0, 1000]", "commit",
+                "begin", "delete responses (1000, 1200]", "commit",
+                "begin", "delete rollups", "purge questions", "purge survey", "commit"), log);
+        assertEquals(0, answers.count(SURVEY_ID));
+        assertEquals(100, answers.count(OTHER_SURVEY_ID));
+    }
+
+    @Test
+    void chunksFollowIdsNotRowCounts() {
+        // Sparse ids: a chunk still holds chunk-size rows
+        for (long id = 10; id <= 100; id += 10) {
+            answers.add(SURVEY_ID, id, id);
+        }
+
+        purge(4);
+
+        assertEquals(List.of("delete answers (0, 40]", "delete answers (40, 80]", "delete answers (80, 100]"),
+                log.stream().filter(entry -> entry.startsWith("delete answers")).toList());
+    }
+
+    @Test
+    void surveyWithoutSubmissionsOnlyRunsTheFinalTransaction() {
+        SurveyPurgeStatus status = purge(1000);
+
+        assertEquals("COMPLETED", status.status());
+        assertEquals(List.of("begin", "delete rollups", "purge questions", "purge survey", "commit"), log);
+    }
+
+    @Test
+    void failedChunkStopsThePurgeAndARetryFinishesIt() {
+        answers.add(SURVEY_ID, 1, 30);
+        responses.add(SURVEY_ID, 1, 10);
+        answers.failAfter = 20;
+        SurveyPurgeStatus failed = purge(10);
+
+        assertEquals("FAILED", failed.status());
+        assertEquals("lock wait timeout", failed.error());
+        assertEquals(20, failed.answersDeleted());
+        assertTrue(log.contains("rollback"));
+        assertTrue(log.stream().noneMatch(entry -> entry.startsWith("delete responses") || entry.equals("purge survey")));
+
+        answers.failAfter = Long.MAX_VALUE;
+        log.clear();
+        service.schedule(SURVEY_ID);
+        SurveyPurgeStatus completed = await();
+
+        assertEquals("COMPLETED", completed.status());
+        // Committed chunks stay deleted; the retry only counts what is left
+        assertEquals(10, completed.answersTotal());
+        assertEquals(10, completed.answersDeleted());
+        assertEquals(10, completed.responsesDeleted());
+        assertEquals(0, answers.count(SURVEY_ID));
+    }
+
+    private SurveyPurgeStatus purge(int chunkSize) {
+        SurveyRepository surveyRepository = repository(SurveyRepository.class, Map.of(
+                "purgeDeleted", args -> {
+                    log.add("purge survey");
+                    return 1;
+                }));
+        QuestionRepository questionRepository = repository(QuestionRepository.class, Map.of(
+                "purgeBySurveyId", args -> {
+                    log.add("purge questions");
+                    return 0;
+                }));
+        SurveyDailyStatsRepository statsRepository = repository(SurveyDailyStatsRepository.class, Map.of(
+                "deleteBySurveyId", args -> {
+                    log.add("delete rollups");
+                    return null;
+                }));
+        service = new SurveyPurgeService(surveyRepository, repository(AnswersRepository.class, answers.methods()),
+                repository(ResponsesRepository.class, responses.methods()), questionRepository, statsRepository,
+                new LoggingTransactionManager(), chunkSize, 0);
+        service.start();
+        service.schedule(SURVEY_ID);
+        return await();
+    }
+
+    private SurveyPurgeStatus await() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            SurveyPurgeStatus status = service.getStatus(SURVEY_ID).orElseThrow();
+            if (status.status().equals("COMPLETED") || status.status().equals("FAILED")) {
+                return status;
+            }
+            Thread.onSpinWait();
+        }
+        throw new AssertionError("Purge did not finish");
+    }
+
+    // Repository implementing only the given methods; any other call fails the purge
+    private static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    Function<Object[], Object> implementation = methods.get(method.getName());
+                    if (implementation == null) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return implementation.apply(args);
+                }));
+    }
+
+    /**
+     * Ids of one table by survey, with the purge queries of its repository
+     */
+    private class Table {
+
+        private final String name;
+        private final Map<Long, NavigableSet<Long>> idsBySurvey = new HashMap<>();
+        // Deleting past this id fails, like a lock timeout
+        volatile long failAfter = Long.MAX_VALUE;
+
+        Table(String name) {
+            this.name = name;
+        }
+
+        void add(long surveyId, long fromId, long toId) {
+            NavigableSet<Long> ids = idsBySurvey.computeIfAbsent(surveyId, id -> new TreeSet<>());
+            for (long id = fromId; id <= toId; id++) {
+                ids.add(id);
+            }
+        }
+
+        synchronized int count(long surveyId) {
+            return ids(surveyId).size();
+        }
+
+        Map<String, Function<Object[], Object>> methods() {
+            return Map.of(
+                    "countBySurveyId", args -> (long) count((Long) args[0]),
+                    "findPurgeChunkEnd", args -> chunkEnd((Long) args[0], (Long) args[1], (Integer) args[2]),
+                    "deletePurgeChunk", args -> delete((Long) args[0], (Long) args[1], (Long) args[2]));
+        }
+
+        private synchronized Long chunkEnd(long surveyId, long afterId, int limit) {
+            return ids(surveyId).tailSet(afterId, false).stream().limit(limit).reduce((a, b) -> b).orElse(null);
+        }
+
+        private synchronized int delete(long surveyId, long afterId, long toId) {
+            log.add("delete " + name + " (" + afterId + ", " + toId + "]");
+            if (toId > failAfter) {
+                throw new IllegalStateException("lock wait timeout");
+            }
+            NavigableSet<Long> range = ids(surveyId).subSet(afterId, false, toId, true);
+            int deleted = range.size();
+            range.clear();
+            return deleted;
+        }
+
+        private NavigableSet<Long> ids(long surveyId) {
+            return idsBySurvey.getOrDefault(surveyId, new TreeSet<>());
+        }
+    }
+
+    private class LoggingTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            log.add("begin");
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            log.add("commit");
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            log.add("rollback");
+        }
+    }
+}
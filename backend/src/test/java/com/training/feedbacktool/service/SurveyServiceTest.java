@@ -0,0 +1,222 @@
+package com.training.feedbacktool.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.feedbacktool.dto.CreateQuestionRequest;
+import com.training.feedbacktool.entity.Question;
+import com.training.feedbacktool.entity.Response;
+import com.training.feedbacktool.entity.Survey;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Question edits and versions: matching requested questions to existing ones,
+ * applying the diff or creating a new version, and merged completion rates
+ */
+class SurveyServiceTest {
+
+    @Test
+    void matchQuestionsPrefersIdsSoReorderedQuestionsKeepTheirIdentity() {
+        Question first = question(1L, 1, "First");
+        Question second = question(2L, 2, "Second");
+        CreateQuestionRequest movedSecond = request(2L, 1, "Second");
+        CreateQuestionRequest movedFirst = request(1L, 2, "First");
+
+        Map<CreateQuestionRequest, Question> matches = SurveyService.matchQuestions(List.of(first, second),
+                List.of(movedSecond, movedFirst));
+
+        assertSame(second, matches.get(movedSecond));
+        assertSame(first, matches.get(movedFirst));
+    }
+
+    @Test
+    void matchQuestionsFallsBackToOrderNumberAmongTheUnmatched() {
+        Question first = question(1L, 1, "First");
+        Question second = question(2L, 2, "Second");
+        CreateQuestionRequest byId = request(2L, 1, "Second");
+        CreateQuestionRequest byOrder = request(null, 1, "Replacement");
+        CreateQuestionRequest unmatched = request(null, 3, "New");
+
+        Map<CreateQuestionRequest, Question> matches = SurveyService.matchQuestions(List.of(first, second),
+                List.of(byId, byOrder, unmatched));
+
+        assertSame(second, matches.get(byId));
+        // Question 2 is taken by id, so order 1 falls to question 1
+        assertSame(first, matches.get(byOrder));
+        assertNull(matches.get(unmatched));
+        assertEquals(2, matches.size());
+    }
+
+    @Test
+    void matchQuestionsIgnoresIdsOfOtherSurveys() {
+        Question first = question(1L, 1, "First");
+        CreateQuestionRequest foreign = request(99L, 5, "Foreign");
+
+        assertTrue(SurveyService.matchQuestions(List.of(first), List.of(foreign)).isEmpty());
+    }
+
+    @Test
+    void matchQuestionsUsesEachExistingQuestionOnce() {
+        Question first = question(1L, 1, "First");
+        CreateQuestionRequest a = request(null, 1, "A");
+        CreateQuestionRequest b = request(null, 1, "B");
+
+        Map<CreateQuestionRequest, Question> matches = SurveyService.matchQuestions(List.of(first), List.of(a, b));
+
+        assertSame(first, matches.get(a));
+        assertNull(matches.get(b));
+    }
+
+    @Test
+    void applyQuestionChangesUpdatesInPlaceInsertsAndRemoves() {
+        Question kept = question(1L, 1, "Kept");
+        Question edited = question(2L, 2, "Before");
+        Question dropped = question(3L, 3, "Dropped");
+        Survey survey = survey(2, kept, edited, dropped);
+
+        SurveyService.applyQuestionChanges(survey, List.of(
+                request(1L, 1, "Kept"),
+                request(2L, 2, "After"),
+                request(null, 4, "Added")));
+
+        List<Question> questions = survey.getQuestions();
+        assertEquals(3, questions.size());
+        assertSame(kept, questions.get(0));
+        assertSame(edited, questions.get(1));
+        assertEquals("After", edited.getQuestionText());
+        assertEquals(2L, edited.getId());
+
+        Question added = questions.get(2);
+        assertNull(added.getId());
+        assertEquals("Added", added.getQuestionText());
+        assertEquals(4, added.getOrderNumber());
+        assertEquals(2, added.getSurveyVersion());
+        assertSame(survey, added.getSurvey());
+        assertTrue(questions.stream().noneMatch(q -> q == dropped));
+    }
+
+    @Test
+    void applyQuestionChangesCopiesEveryField() {
+        Question existing = question(1L, 1, "Old");
+        Survey survey = survey(1, existing);
+
+        SurveyService.applyQuestionChanges(survey, List.of(
+                new CreateQuestionRequest(1L, "RADIO", "New", "[\"a\",\"b\"]", 4, true)));
+
+        assertEquals("RADIO", existing.getType());
+        assertEquals("New", existing.getQuestionText());
+        assertEquals("[\"a\",\"b\"]", existing.getOptionsJson());
+        assertEquals(4, existing.getOrderNumber());
+        assertEquals(Boolean.TRUE, existing.getRequired());
+    }
+
+    @Test
+    void applyQuestionChangesWithNoQuestionsClearsTheSurvey() {
+        Survey survey = survey(1, question(1L, 1, "Only"));
+
+        SurveyService.applyQuestionChanges(survey, List.of());
+
+        assertTrue(survey.getQuestions().isEmpty());
+    }
+
+    @Test
+    void createQuestionVersionRetiresCurrentQuestionsAndContinuesLineages() {
+        Question kept = question(1L, 1, "Kept");
+        Question reworded = question(2L, 2, "Before");
+        Question dropped = question(3L, 3, "Dropped");
+        Survey survey = survey(1, kept, reworded, dropped);
+
+        SurveyService.createQuestionVersion(survey, List.of(
+                request(1L, 1, "Kept"),
+                request(2L, 2, "After"),
+                request(null, 4, "Added")));
+
+        assertEquals(2, survey.getCurrentVersion());
+        assertTrue(kept.isRetired() && reworded.isRetired() && dropped.isRetired());
+        assertEquals("Before", reworded.getQuestionText());
+
+        List<Question> created = survey.getQuestions().stream().filter(q -> !q.isRetired()).toList();
+        assertEquals(3, created.size());
+        assertTrue(created.stream().allMatch(q -> q.getId() == null && q.getSurveyVersion() == 2));
+        assertEquals(1L, created.get(0).getOriginQuestionId());
+        assertEquals(2L, created.get(1).getOriginQuestionId());
+        assertEquals("After", created.get(1).getQuestionText());
+        // Order 4 matches no current question, so it starts its own lineage
+        assertNull(created.get(2).getOriginQuestionId());
+    }
+
+    @Test
+    void createQuestionVersionKeepsTheFirstQuestionAsLineageAcrossVersions() {
+        Question original = question(1L, 1, "Original");
+        Question second = question(11L, 1, "Second");
+        second.setSurveyVersion(2);
+        second.setOriginQuestionId(1L);
+        Survey survey = survey(2, second);
+
+        SurveyService.createQuestionVersion(survey, List.of(request(11L, 1, "Third")));
+
+        Question third = survey.getQuestions().get(1);
+        assertEquals(3, third.getSurveyVersion());
+        assertEquals(1L, third.getOriginQuestionId());
+        assertEquals(original.getLineageId(), third.getLineageId());
+    }
+
+    @Test
+    void mergedCompletionCountsOnlyResponsesOfVersionsTheQuestionWasAskedIn() {
+        Question keptV1 = question(1L, 1, "Kept");
+        Question keptV2 = question(11L, 1, "Kept");
+        keptV2.setSurveyVersion(2);
+        keptV2.setOriginQuestionId(1L);
+        Question addedV2 = question(12L, 2, "Added");
+        addedV2.setSurveyVersion(2);
+        SurveyPlan plan = SurveyPlan.compile(survey(2, keptV2, addedV2), List.of(keptV1), new ObjectMapper());
+
+        List<Response> responses = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            responses.add(response(1));
+        }
+        for (int i = 0; i < 10; i++) {
+            responses.add(response(2));
+        }
+        Map<Integer, Long> byVersion = SurveyService.countByVersion(responses);
+
+        assertEquals(1010L, SurveyService.respondentsAsked(plan, 11L, byVersion, responses.size()));
+        assertEquals(10L, SurveyService.respondentsAsked(plan, 12L, byVersion, responses.size()));
+        // Unknown to the plan (e.g. a stale cached plan): every response
+        assertEquals(1010L, SurveyService.respondentsAsked(plan, 99L, byVersion, responses.size()));
+    }
+
+    static Survey survey(int version, Question... questions) {
+        Survey survey = new Survey();
+        survey.setId(7L);
+        survey.setCurrentVersion(version);
+        survey.setQuestions(List.of(questions));
+        return survey;
+    }
+
+    static Question question(Long id, int orderNumber, String text) {
+        Question question = new Question();
+        question.setId(id);
+        question.setType("TEXT");
+        question.setQuestionText(text);
+        question.setOrderNumber(orderNumber);
+        return question;
+    }
+
+    static Response response(int surveyVersion) {
+        Response response = new Response();
+        response.setSurveyVersion(surveyVersion);
+        return response;
+    }
+
+    static CreateQuestionRequest request(Long id, int orderNumber, String text) {
+        return new CreateQuestionRequest(id, "TEXT", text, null, orderNumber, false);
+    }
+}
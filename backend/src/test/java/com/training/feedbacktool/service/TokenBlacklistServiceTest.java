@@ -0,0 +1,105 @@
+package com.training.feedbacktool.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBlacklistServiceTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long START = 1_700_000_000_000L;
+
+    private final AtomicLong now = new AtomicLong(START);
+    private TokenBlacklistService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TokenBlacklistService(now::get, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void tokenStaysBlacklistedUntilTheTickAfterItExpires() {
+        service.blacklistToken("jti-1", new Date(START + MINUTE + 30_000));
+
+        assertTrue(service.isTokenBlacklisted("jti-1"));
+        tick(1);
+        assertTrue(service.isTokenBlacklisted("jti-1"));
+        tick(1);
+        assertFalse(service.isTokenBlacklisted("jti-1"));
+        assertEquals(0, service.size());
+    }
+
+    @Test
+    void expiredTokensAreNotStored() {
+        service.blacklistToken("jti-1", new Date(START));
+        service.blacklistToken("jti-2", new Date(START - MINUTE));
+
+        assertEquals(0, service.size());
+        assertFalse(service.isTokenBlacklisted("jti-1"));
+    }
+
+    @Test
+    void unknownAndNullIdsAreNotBlacklisted() {
+        service.blacklistToken("jti-1", new Date(START + MINUTE));
+
+        assertFalse(service.isTokenBlacklisted("jti-2"));
+        assertFalse(service.isTokenBlacklisted(null));
+    }
+
+    @Test
+    void expiriesBeyondOneRevolutionWaitForTheirRound() {
+        // 1500 ticks: same slot as tick 476 of the first revolution
+        service.blacklistToken("long-lived", new Date(START + 1500 * MINUTE));
+        service.blacklistToken("short-lived", new Date(START + 476 * MINUTE));
+
+        tick(476);
+        assertFalse(service.isTokenBlacklisted("short-lived"));
+        assertTrue(service.isTokenBlacklisted("long-lived"));
+
+        tick(1500 - 476 - 1);
+        assertTrue(service.isTokenBlacklisted("long-lived"));
+        tick(1);
+        assertFalse(service.isTokenBlacklisted("long-lived"));
+    }
+
+    @Test
+    void reblacklistingWithALaterExpiryKeepsTheToken() {
+        service.blacklistToken("jti-1", new Date(START + MINUTE));
+        service.blacklistToken("jti-1", new Date(START + 3 * MINUTE));
+
+        tick(1);
+        assertTrue(service.isTokenBlacklisted("jti-1"));
+        tick(2);
+        assertFalse(service.isTokenBlacklisted("jti-1"));
+    }
+
+    @Test
+    void tokensAddedLaterAreScheduledFromTheCurrentTick() {
+        now.set(START + 5 * MINUTE);
+        tick(5);
+        service.blacklistToken("jti-1", new Date(START + 5 * MINUTE + 10_000));
+
+        assertTrue(service.isTokenBlacklisted("jti-1"));
+        tick(1);
+        assertFalse(service.isTokenBlacklisted("jti-1"));
+    }
+
+    private void tick(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            service.advanceWheel();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.training.feedbacktool.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvWriterTest {
+
+    private static final String[] VALUES = {
+            "plain", "  padded  ", "comma, inside", "say \"hi\"", "\"quoted\"", "line\nbreak", "crlf\r\nbreak",
+            "many\n\n\nbreaks", "tab\there", "multi   space", "\t leading tab", "trailing newline\n", "", " ",
+            "a,\"b\",c", "été, ça", "x".repeat(600) + ",\"" };
+
+    @Test
+    void fieldMatchesLegacyEscaping() throws IOException {
+        for (String value : VALUES) {
+            assertEquals(legacyEscape(value) + "\n", render(csv -> csv.field(value).endRow()), value);
+        }
+    }
+
+    @Test
+    void textMatchesLegacyCleaning() throws IOException {
+        for (String value : VALUES) {
+            assertEquals(legacyEscape(legacyClean(value)) + "\n", render(csv -> csv.text(value).endRow()), value);
+        }
+    }
+
+    @Test
+    void nullFieldsDifferBetweenModes() throws IOException {
+        assertEquals("\"\",\n", render(csv -> csv.field((String) null).text(null).endRow()));
+    }
+
+    @Test
+    void rowSeparatesFieldsAndEndsLine() throws IOException {
+        assertEquals("a,\"b,c\",d\n", render(csv -> csv.row("a", "b,c", "d")));
+    }
+
+    @Test
+    void linesAndBlankLinesEndTheOpenRow() throws IOException {
+        assertEquals("a\nSection\n\nb\n", render(csv -> {
+            csv.field("a");
+            csv.line("Section");
+            csv.blankLine();
+            csv.row("b");
+        }));
+    }
+
+    @Test
+    void longsAreWrittenInFull() throws IOException {
+        assertEquals("0,-7,1234567890123,-9223372036854775808\n", render(csv -> csv.field(0L).field(-7L)
+                .field(1_234_567_890_123L).field(Long.MIN_VALUE).endRow()));
+    }
+
+    @Test
+    void fixedDecimalsMatchStringFormat() throws IOException {
+        double[] values = { 0, 1, 0.05, 0.15, 0.125, 1.005, 1.115, 2.675, 4.35, 99.995, 33.333333, 66.6666667,
+                -0.05, -0.04, -1.5, 1234567.891, 0.0000001 };
+        for (double value : values) {
+            for (int decimals = 0; decimals <= 3; decimals++) {
+                int d = decimals;
+                String expected = String.format(Locale.ROOT, "%." + d + "f", value);
+                assertEquals(expected + "\n", render(csv -> csv.field(value, d).endRow()), value + " (" + d + ")");
+                assertEquals(expected + "%\n", render(csv -> csv.percent(value, d).endRow()), value + " (" + d + ")");
+            }
+        }
+    }
+
+    @Test
+    void fixedDecimalsOutsideTheFastPathFallBackToToString() throws IOException {
+        assertEquals("NaN,Infinity%,1.0E13\n", render(csv -> csv.field(Double.NaN, 1)
+                .percent(Double.POSITIVE_INFINITY, 1).field(1e13, 2).endRow()));
+    }
+
+    @Test
+    void datesAreFormattedInPlace() throws IOException {
+        assertEquals("2024-02-29\n", render(csv -> csv.field(LocalDate.of(2024, 2, 29),
+                DateTimeFormatter.ISO_LOCAL_DATE).endRow()));
+    }
+
+    private interface Rows {
+        void write(CsvWriter csv) throws IOException;
+    }
+
+    private static String render(Rows rows) throws IOException {
+        StringWriter out = new StringWriter();
+        CsvWriter csv = new CsvWriter(out);
+        rows.write(csv);
+        csv.flush();
+        return out.toString();
+    }
+
+    // The export's original escaping, kept as the reference for the writer
+    private static String legacyEscape(String value) {
+        if (value == null)
+            return "\"\"";
+        String cleaned = value.replaceAll("[\r\n]+", " ").trim();
+        if (cleaned.contains(",") || cleaned.contains("\"") || cleaned.contains("\n") || cleaned.contains("\r")) {
+            return "\"" + cleaned.replace("\"", "\"\"") + "\"";
+        }
+        return cleaned;
+    }
+
+    private static String legacyClean(String text) {
+        if (text == null)
+            return "";
+        return text.replaceAll("[\r\n]+", " ").replaceAll("\\s+", " ").trim();
+    }
+}
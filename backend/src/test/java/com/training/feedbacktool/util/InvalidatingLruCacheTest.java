@@ -0,0 +1,113 @@
+package com.training.feedbacktool.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InvalidatingLruCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void valuesAreLoadedOnceAndCounted() {
+        InvalidatingLruCache<String, String> cache = new InvalidatingLruCache<>(10);
+
+        assertEquals("a1", cache.get("a", () -> load("a")));
+        assertEquals("a1", cache.get("a", () -> load("a")));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        InvalidatingLruCache<String, String> cache = new InvalidatingLruCache<>(2);
+        cache.get("a", () -> load("a"));
+        cache.get("b", () -> load("b"));
+        cache.get("a", () -> load("a"));
+        cache.get("c", () -> load("c"));
+
+        assertEquals(2, cache.size());
+        assertEquals("a1", cache.get("a", () -> load("a")));
+        assertEquals("b4", cache.get("b", () -> load("b")));
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() {
+        InvalidatingLruCache<String, String> cache = new InvalidatingLruCache<>(10, Duration.ofSeconds(5),
+                now::get);
+        cache.get("a", () -> load("a"));
+
+        now.set(Duration.ofSeconds(5).toNanos() - 1);
+        assertEquals("a1", cache.get("a", () -> load("a")));
+        now.set(Duration.ofSeconds(5).toNanos());
+        assertEquals("a2", cache.get("a", () -> load("a")));
+    }
+
+    @Test
+    void invalidationWaitsForTheTransactionToCommit() {
+        InvalidatingLruCache<String, String> cache = new InvalidatingLruCache<>(10);
+        cache.get("a", () -> load("a"));
+        cache.get("b", () -> load("b"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidate("a");
+        assertEquals("a1", cache.get("a", () -> load("a")));
+
+        commit();
+        assertEquals("a3", cache.get("a", () -> load("a")));
+        assertEquals("b2", cache.get("b", () -> load("b")));
+    }
+
+    @Test
+    void invalidateAllDropsEveryEntry() {
+        InvalidatingLruCache<String, String> cache = new InvalidatingLruCache<>(10);
+        cache.get("a", () -> load("a"));
+        cache.get("b", () -> load("b"));
+
+        cache.invalidateAll();
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void valueLoadedAcrossAnInvalidationIsReturnedButNotCached() {
+        InvalidatingLruCache<String, String> cache = new InvalidatingLruCache<>(10);
+
+        String value = cache.get("a", () -> {
+            // Another request changes the data while this one is loading
+            cache.invalidate("other");
+            return load("a");
+        });
+
+        assertEquals("a1", value);
+        assertEquals(0, cache.size());
+        assertEquals("a2", cache.get("a", () -> load("a")));
+    }
+
+    private String load(String key) {
+        return key + loads.incrementAndGet();
+    }
+
+    private static void commit() {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+}
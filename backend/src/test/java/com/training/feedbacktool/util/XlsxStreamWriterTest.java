@@ -0,0 +1,138 @@
+package com.training.feedbacktool.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XlsxStreamWriterTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @Test
+    void workbookListsEverySheetWithItsParts() throws IOException {
+        try (XlsxStreamWriter xlsx = new XlsxStreamWriter(out)) {
+            xlsx.startSheet("Summary");
+            xlsx.row("a");
+            xlsx.startSheet("Raw");
+            xlsx.row("b");
+        }
+
+        Map<String, String> parts = unzip();
+        assertEquals(List.of("xl/worksheets/sheet1.xml", "xl/worksheets/sheet2.xml", "[Content_Types].xml",
+                "_rels/.rels", "xl/workbook.xml", "xl/_rels/workbook.xml.rels"), List.copyOf(parts.keySet()));
+        String workbook = parts.get("xl/workbook.xml");
+        assertTrue(workbook.contains("<sheet name=\"Summary\" sheetId=\"1\" r:id=\"rId1\"/>"
+                + "<sheet name=\"Raw\" sheetId=\"2\" r:id=\"rId2\"/>"), workbook);
+        assertTrue(parts.get("xl/_rels/workbook.xml.rels").contains("Id=\"rId2\"")
+                && parts.get("xl/_rels/workbook.xml.rels").contains("Target=\"worksheets/sheet2.xml\""));
+        assertTrue(parts.get("[Content_Types].xml").contains("PartName=\"/xl/worksheets/sheet2.xml\""));
+        assertTrue(parts.get("xl/worksheets/sheet2.xml").endsWith("</sheetData></worksheet>"));
+    }
+
+    @Test
+    void cellsAreTypedByValue() throws IOException {
+        try (XlsxStreamWriter xlsx = new XlsxStreamWriter(out)) {
+            xlsx.startSheet("Data");
+            xlsx.row(42, 2.5, null, "text", Double.NaN);
+            xlsx.blankRow();
+        }
+
+        String sheet = unzip().get("xl/worksheets/sheet1.xml");
+        assertTrue(sheet.contains("<sheetData><row r=\"1\">"
+                + "<c><v>42</v></c>"
+                + "<c><v>2.5</v></c>"
+                + "<c/>"
+                + "<c t=\"inlineStr\"><is><t xml:space=\"preserve\">text</t></is></c>"
+                + "<c t=\"inlineStr\"><is><t xml:space=\"preserve\">NaN</t></is></c>"
+                + "</row><row r=\"2\"></row></sheetData>"), sheet);
+    }
+
+    @Test
+    void stringsAreEscapedAndInvalidXmlCharactersDropped() throws IOException {
+        try (XlsxStreamWriter xlsx = new XlsxStreamWriter(out)) {
+            xlsx.startSheet("Data");
+            xlsx.row("<a href=\"x\">&</a>\u0001\tline\nnext\uFFFF \u00e9");
+        }
+
+        String sheet = unzip().get("xl/worksheets/sheet1.xml");
+        assertTrue(sheet.contains("<t xml:space=\"preserve\">&lt;a href=&quot;x&quot;&gt;&amp;&lt;/a&gt;"
+                + "\tline\nnext \u00e9</t>"), sheet);
+    }
+
+    @Test
+    void sheetNamesAreCleanedTruncatedAndMadeUnique() throws IOException {
+        try (XlsxStreamWriter xlsx = new XlsxStreamWriter(out)) {
+            xlsx.startSheet("Q1: Team [A/B]?");
+            xlsx.startSheet("A very long survey title that goes on");
+            xlsx.startSheet("A very long survey title that goes on");
+            xlsx.startSheet("***");
+            xlsx.startSheet("Tom & Jerry");
+        }
+
+        String workbook = unzip().get("xl/workbook.xml");
+        assertTrue(workbook.contains("name=\"Q1  Team  A B\""), workbook);
+        assertTrue(workbook.contains("name=\"A very long survey title that g\""), workbook);
+        assertTrue(workbook.contains("name=\"A very long survey title th (2)\""), workbook);
+        assertTrue(workbook.contains("name=\"Sheet\""), workbook);
+        assertTrue(workbook.contains("name=\"Tom &amp; Jerry\""), workbook);
+    }
+
+    @Test
+    void finishingWithoutSheetsWritesAnEmptyOne() throws IOException {
+        XlsxStreamWriter xlsx = new XlsxStreamWriter(out);
+        xlsx.finish();
+        int size = out.size();
+        xlsx.close();
+
+        assertEquals(size, out.size());
+        Map<String, String> parts = unzip();
+        assertTrue(parts.get("xl/workbook.xml").contains("<sheet name=\"Sheet1\""));
+        assertTrue(parts.get("xl/worksheets/sheet1.xml").endsWith("<sheetData></sheetData></worksheet>"));
+    }
+
+    @Test
+    void rowsNeedASheet() {
+        XlsxStreamWriter xlsx = new XlsxStreamWriter(out);
+
+        assertThrows(IllegalStateException.class, () -> xlsx.row("a"));
+    }
+
+    @Test
+    void rowNumbersRestartInEachSheet() throws IOException {
+        try (XlsxStreamWriter xlsx = new XlsxStreamWriter(out)) {
+            xlsx.startSheet("One");
+            xlsx.row("a");
+            xlsx.row("b");
+            assertEquals(2, xlsx.getRowsInSheet());
+            xlsx.startSheet("Two");
+            assertEquals(0, xlsx.getRowsInSheet());
+            xlsx.row("c");
+        }
+
+        assertTrue(unzip().get("xl/worksheets/sheet2.xml").contains("<sheetData><row r=\"1\">"));
+    }
+
+    // Entry name -> content, in archive order
+    private Map<String, String> unzip() throws IOException {
+        Map<String, String> parts = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()),
+                StandardCharsets.UTF_8)) {
+            for (ZipEntry entry; (entry = zip.getNextEntry()) != null;) {
+                parts.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return parts;
+    }
+}
@@ -441,6 +441,7 @@ export default function EditSurveyPage() {
                 active: status === "ACTIVE",
                 endDate: survey.endDate ? new Date(survey.endDate).toISOString() : null,
                 questions: questions.map(q => ({
+                    id: q.id, // lets the server update existing questions in place
                     type: q.type,
                     questionText: q.questionText,
                     optionsJson: q.optionsJson,